@@ -1,9 +1,11 @@
 package com.inventario;
 
+import com.inventario.estadisticas.EstadisticasTipo;
 import com.inventario.facade.InventarioFacade;
 import com.inventario.factory.ProductoFactory;
 import com.inventario.model.Producto;
 import com.inventario.model.TipoTela;
+import com.inventario.repository.PaginaProductos;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -13,6 +15,7 @@ public class Main {
     
     private static final InventarioFacade facade = new InventarioFacade();
     private static final Scanner scanner = new Scanner(System.in);
+    private static final int TAMANO_PAGINA = 20;
 
     public static void main(String[] args) {
         mostrarBanner();
@@ -56,6 +59,7 @@ public class Main {
         }
         
         scanner.close();
+        facade.cerrar();
     }
 
     private static void mostrarBanner() {
@@ -130,9 +134,9 @@ public class Main {
         System.out.println("|                    LISTADO DE PRODUCTOS                       |");
         System.out.println(" _______________________________________________________________ \n");
         
-        List<Producto> productos = facade.listarTodosLosProductos();
+        PaginaProductos pagina = facade.listarProductosPagina(null, TAMANO_PAGINA);
         
-        if (productos.isEmpty()) {
+        if (pagina.getProductos().isEmpty()) {
             System.out.println("  No hay productos registrados.");
             return;
         }
@@ -141,20 +145,33 @@ public class Main {
                          "CÓDIGO", "NOMBRE", "TIPO", "COLOR", "PRECIO", "STOCK");
         System.out.println("─".repeat(90));
         
-        for (Producto p : productos) {
-            System.out.printf("%-10s %-30s %-15s %-12s S/ %7.2f %d/%d %s\n",
-                p.getCodigo(),
-                p.getNombre().length() > 30 ? p.getNombre().substring(0, 27) + "..." : p.getNombre(),
-                p.getTipoTela(),
-                p.getColor(),
-                p.getPrecio(),
-                p.getStockActual(),
-                p.getStockMinimo(),
-                p.tieneStockBajo() ? "⚠️" : "✓"
-            );
+        int mostrados = 0;
+        while (true) {
+            for (Producto p : pagina.getProductos()) {
+                System.out.printf("%-10s %-30s %-15s %-12s S/ %7.2f %d/%d %s\n",
+                    p.getCodigo(),
+                    p.getNombre().length() > 30 ? p.getNombre().substring(0, 27) + "..." : p.getNombre(),
+                    p.getTipoTela(),
+                    p.getColor(),
+                    p.getPrecio(),
+                    p.getStockActual(),
+                    p.getStockMinimo(),
+                    p.tieneStockBajo() ? "⚠️" : "✓"
+                );
+            }
+            mostrados += pagina.getProductos().size();
+            
+            if (!pagina.hayMas()) {
+                break;
+            }
+            System.out.print("-- ENTER para ver más, 'q' para terminar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                break;
+            }
+            pagina = facade.listarProductosPagina(pagina.getSiguienteCursor(), TAMANO_PAGINA);
         }
         
-        System.out.println("\nTotal: " + productos.size() + " productos");
+        System.out.println("\nMostrados: " + mostrados + " productos");
     }
 
     private static void buscarProductoPorCodigo() {
@@ -283,7 +300,7 @@ public class Main {
         System.out.println("|              ESTADÍSTICAS POR TIPO DE TELA                    |");
         System.out.println(" _______________________________________________________________ \n");
         
-        Map<TipoTela, Map<String, Object>> estadisticas = facade.obtenerEstadisticasPorTipo();
+        Map<TipoTela, EstadisticasTipo> estadisticas = facade.obtenerEstadisticasPorTipo();
         
         if (estadisticas.isEmpty()) {
             System.out.println("  No hay estadísticas disponibles.");
@@ -297,10 +314,10 @@ public class Main {
         estadisticas.forEach((tipo, stats) -> {
             System.out.printf("%-15s %-10d %-12d S/ %11.2f S/ %11.2f\n",
                 tipo,
-                stats.get("cantidad"),
-                stats.get("stockTotal"),
-                (Double) stats.get("valorTotal"),
-                (Double) stats.get("precioPromedio")
+                stats.getCantidad(),
+                stats.getStockTotal(),
+                stats.getValorTotal(),
+                stats.getPrecioPromedio()
             );
         });
     }
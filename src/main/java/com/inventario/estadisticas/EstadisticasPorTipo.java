@@ -0,0 +1,85 @@
+package com.inventario.estadisticas;
+
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/*
+ * Agregación por tipo de tela en una sola pasada: cantidad, stock, valor y precio (suma, mín., máx.).
+ * Cada partición llena acumuladores indexados por ordinal del tipo y al final se combinan.
+ */
+public final class EstadisticasPorTipo {
+
+    private static final TipoTela[] TIPOS = TipoTela.values();
+
+    private EstadisticasPorTipo() {
+    }
+
+    // Solo incluye los tipos con al menos un producto
+    public static Collector<Producto, ?, Map<TipoTela, EstadisticasTipo>> colector() {
+        return Collector.of(
+                Acumulador::new,
+                Acumulador::agregar,
+                Acumulador::combinar,
+                Acumulador::resultado,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static final class Acumulador {
+        private final long[] cantidad = new long[TIPOS.length];
+        private final long[] stock = new long[TIPOS.length];
+        private final double[] valor = new double[TIPOS.length];
+        private final double[] sumaPrecios = new double[TIPOS.length];
+        private final double[] precioMinimo = new double[TIPOS.length];
+        private final double[] precioMaximo = new double[TIPOS.length];
+
+        Acumulador() {
+            Arrays.fill(precioMinimo, Double.POSITIVE_INFINITY);
+            Arrays.fill(precioMaximo, Double.NEGATIVE_INFINITY);
+        }
+
+        void agregar(Producto producto) {
+            TipoTela tipo = producto.getTipoTela();
+            if (tipo == null) {
+                return;
+            }
+            int i = tipo.ordinal();
+            // Una sola lectura de cada campo: el valor queda coherente con precio y stock
+            double precio = producto.getPrecio();
+            int stockActual = producto.getStockActual();
+            cantidad[i]++;
+            stock[i] += stockActual;
+            valor[i] += precio * stockActual;
+            sumaPrecios[i] += precio;
+            precioMinimo[i] = Math.min(precioMinimo[i], precio);
+            precioMaximo[i] = Math.max(precioMaximo[i], precio);
+        }
+
+        Acumulador combinar(Acumulador otro) {
+            for (int i = 0; i < TIPOS.length; i++) {
+                cantidad[i] += otro.cantidad[i];
+                stock[i] += otro.stock[i];
+                valor[i] += otro.valor[i];
+                sumaPrecios[i] += otro.sumaPrecios[i];
+                precioMinimo[i] = Math.min(precioMinimo[i], otro.precioMinimo[i]);
+                precioMaximo[i] = Math.max(precioMaximo[i], otro.precioMaximo[i]);
+            }
+            return this;
+        }
+
+        Map<TipoTela, EstadisticasTipo> resultado() {
+            Map<TipoTela, EstadisticasTipo> resultado = new EnumMap<>(TipoTela.class);
+            for (int i = 0; i < TIPOS.length; i++) {
+                if (cantidad[i] > 0) {
+                    resultado.put(TIPOS[i], new EstadisticasTipo(TIPOS[i], cantidad[i], stock[i], valor[i],
+                            sumaPrecios[i], precioMinimo[i], precioMaximo[i]));
+                }
+            }
+            return Collections.unmodifiableMap(resultado);
+        }
+    }
+}
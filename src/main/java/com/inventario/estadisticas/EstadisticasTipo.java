@@ -0,0 +1,59 @@
+package com.inventario.estadisticas;
+
+import com.inventario.model.TipoTela;
+
+public final class EstadisticasTipo {
+
+    private final TipoTela tipoTela;
+    private final long cantidad;
+    private final long stockTotal;
+    private final double valorTotal;
+    private final double sumaPrecios;
+    private final double precioMinimo;
+    private final double precioMaximo;
+
+    public EstadisticasTipo(TipoTela tipoTela, long cantidad, long stockTotal, double valorTotal,
+                            double sumaPrecios, double precioMinimo, double precioMaximo) {
+        this.tipoTela = tipoTela;
+        this.cantidad = cantidad;
+        this.stockTotal = stockTotal;
+        this.valorTotal = valorTotal;
+        this.sumaPrecios = sumaPrecios;
+        this.precioMinimo = precioMinimo;
+        this.precioMaximo = precioMaximo;
+    }
+
+    public TipoTela getTipoTela() {
+        return tipoTela;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public long getStockTotal() {
+        return stockTotal;
+    }
+
+    public double getValorTotal() {
+        return valorTotal;
+    }
+
+    public double getPrecioPromedio() {
+        return cantidad > 0 ? sumaPrecios / cantidad : 0.0;
+    }
+
+    public double getPrecioMinimo() {
+        return precioMinimo;
+    }
+
+    public double getPrecioMaximo() {
+        return precioMaximo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d productos, stock %d, valor S/ %.2f, precio prom. S/ %.2f",
+                             tipoTela, cantidad, stockTotal, valorTotal, getPrecioPromedio());
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventario.estadisticas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/*
+ * Selección de los k mayores con un montículo acotado: O(n log k) y memoria O(k).
+ * Funciona en streams paralelos: cada partición llena su montículo y luego se combinan.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    // Resultado de mayor a menor según 'orden'
+    public static <T> Collector<T, ?, List<T>> mayores(int k, Comparator<? super T> orden) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k debe ser positivo");
+        }
+        return Collector.of(
+                () -> new Monticulo<T>(k, orden),
+                Monticulo::agregar,
+                Monticulo::combinar,
+                Monticulo::ordenados);
+    }
+
+    private static final class Monticulo<T> {
+        private final int k;
+        private final Comparator<? super T> orden;
+        // La raíz es el menor de los conservados: el primero en salir si llega uno mayor
+        private final PriorityQueue<T> elementos;
+
+        Monticulo(int k, Comparator<? super T> orden) {
+            this.k = k;
+            this.orden = orden;
+            this.elementos = new PriorityQueue<>(Math.min(k, 1024) + 1, orden);
+        }
+
+        void agregar(T elemento) {
+            if (elementos.size() < k) {
+                elementos.add(elemento);
+            } else if (orden.compare(elemento, elementos.peek()) > 0) {
+                elementos.poll();
+                elementos.add(elemento);
+            }
+        }
+
+        Monticulo<T> combinar(Monticulo<T> otro) {
+            otro.elementos.forEach(this::agregar);
+            return this;
+        }
+
+        List<T> ordenados() {
+            List<T> resultado = new ArrayList<>(elementos);
+            resultado.sort(orden.reversed());
+            return resultado;
+        }
+    }
+}
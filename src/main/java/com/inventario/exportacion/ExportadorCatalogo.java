@@ -0,0 +1,127 @@
+package com.inventario.exportacion;
+
+import com.inventario.model.Producto;
+import com.inventario.reporte.Formatos;
+import com.inventario.repository.IProductoRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+ * Exporta el catálogo activo producto a producto desde el repositorio.
+ * Cada línea se arma en un StringBuilder reutilizado y se codifica en un buffer de tamaño fijo,
+ * así la memoria no depende del tamaño del catálogo. Las escrituras pueden continuar mientras tanto.
+ */
+public class ExportadorCatalogo {
+
+    private static final String CABECERA_CSV =
+            "id,codigo,nombre,tipo,color,precio,stock,stock_minimo,fecha_creacion,fecha_actualizacion";
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final IProductoRepository repository;
+
+    public ExportadorCatalogo(IProductoRepository repository) {
+        this.repository = repository;
+    }
+
+    // No cierra 'salida'; devuelve la cantidad de productos exportados
+    public long exportar(OutputStream salida, FormatoExportacion formato) throws IOException {
+        long total = exportar(Channels.newChannel(salida), formato);
+        salida.flush();
+        return total;
+    }
+
+    public long exportar(WritableByteChannel canal, FormatoExportacion formato) throws IOException {
+        Salida salida = new Salida(canal);
+        StringBuilder linea = new StringBuilder(256);
+        long total = 0;
+
+        if (formato == FormatoExportacion.CSV) {
+            linea.append(CABECERA_CSV).append('\n');
+            salida.escribir(linea);
+        }
+        try (Stream<Producto> productos = repository.streamActivos()) {
+            Iterator<Producto> iterador = productos.iterator();
+            while (iterador.hasNext()) {
+                linea.setLength(0);
+                if (formato == FormatoExportacion.CSV) {
+                    lineaCsv(linea, iterador.next());
+                } else {
+                    lineaJson(linea, iterador.next());
+                }
+                salida.escribir(linea);
+                total++;
+            }
+        }
+        salida.vaciar();
+        return total;
+    }
+
+    private static void lineaCsv(StringBuilder linea, Producto producto) {
+        linea.append(producto.getId()).append(',');
+        Formatos.agregarCsv(linea, producto.getCodigo()).append(',');
+        Formatos.agregarCsv(linea, producto.getNombre()).append(',');
+        linea.append(producto.getTipoTela().name()).append(',');
+        Formatos.agregarCsv(linea, producto.getColor()).append(',');
+        linea.append(producto.getPrecio()).append(',')
+             .append(producto.getStockActual()).append(',')
+             .append(producto.getStockMinimo()).append(',')
+             .append(producto.getFechaCreacion()).append(',')
+             .append(producto.getFechaActualizacion()).append('\n');
+    }
+
+    private static void lineaJson(StringBuilder linea, Producto producto) {
+        linea.append("{\"id\":").append(producto.getId());
+        linea.append(",\"codigo\":");
+        Formatos.agregarJson(linea, producto.getCodigo());
+        linea.append(",\"nombre\":");
+        Formatos.agregarJson(linea, producto.getNombre());
+        linea.append(",\"tipo\":\"").append(producto.getTipoTela().name()).append('"');
+        linea.append(",\"color\":");
+        Formatos.agregarJson(linea, producto.getColor());
+        linea.append(",\"precio\":").append(producto.getPrecio())
+             .append(",\"stock\":").append(producto.getStockActual())
+             .append(",\"stockMinimo\":").append(producto.getStockMinimo())
+             .append(",\"fechaCreacion\":\"").append(producto.getFechaCreacion())
+             .append("\",\"fechaActualizacion\":\"").append(producto.getFechaActualizacion())
+             .append("\"}\n");
+    }
+
+    // Codifica a UTF-8 en un buffer fijo y lo vuelca al canal cuando se llena
+    private static final class Salida {
+        private final WritableByteChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER);
+        private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        Salida(WritableByteChannel canal) {
+            this.canal = canal;
+        }
+
+        void escribir(CharSequence texto) throws IOException {
+            CharBuffer entrada = CharBuffer.wrap(texto);
+            while (codificador.encode(entrada, buffer, true) == CoderResult.OVERFLOW) {
+                vaciar();
+            }
+            codificador.reset();
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.inventario.exportacion;
+
+public enum FormatoExportacion {
+    // Con cabecera, compatible con ImportadorCsv
+    CSV,
+    // Un objeto JSON por línea
+    NDJSON
+}
@@ -1,47 +1,116 @@
 package com.inventario.facade;
 
+import com.inventario.estadisticas.EstadisticasTipo;
+import com.inventario.exportacion.ExportadorCatalogo;
+import com.inventario.exportacion.FormatoExportacion;
+import com.inventario.importacion.EstadisticasImportacion;
+import com.inventario.importacion.ImportadorCsv;
+import com.inventario.model.MovimientoStock;
 import com.inventario.model.Producto;
 import com.inventario.model.ProductoBuilder;
+import com.inventario.model.Reloj;
+import com.inventario.model.RelojCacheado;
+import com.inventario.model.ResultadoStock;
 import com.inventario.model.TipoTela;
 import com.inventario.observer.IObservador;
 import com.inventario.observer.NotificadorConsola;
 import com.inventario.observer.NotificadorLog;
+import com.inventario.observer.PoliticaDesbordamiento;
+import com.inventario.persistencia.GestorPersistencia;
+import com.inventario.reporte.FormatoReporte;
+import com.inventario.reporte.ReporteTexto;
 import com.inventario.repository.IProductoRepository;
+import com.inventario.repository.PaginaProductos;
 import com.inventario.repository.ProductoRepositoryImpl;
 import com.inventario.service.InventarioService;
 import com.inventario.service.ProductoService;
+import com.inventario.service.ReporteMovimientos;
+import com.inventario.service.ResumenInventario;
 import com.inventario.strategy.IValidacionStrategy;
 import com.inventario.strategy.ValidacionBasicaStrategy;
 import com.inventario.strategy.ValidacionEstrictaStrategy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class InventarioFacade {
     
     private final ProductoService productoService;
     private final InventarioService inventarioService;
     private final IProductoRepository repository;
+    private final GestorPersistencia persistencia;
+    // Con persistencia es un RelojCacheado propio de esta fachada: los movimientos masivos marcan
+    // su fecha sin llamar al reloj del sistema
+    private final Reloj reloj;
     
     public InventarioFacade() {
         this.repository = new ProductoRepositoryImpl();
+        this.persistencia = null;
+        this.reloj = Reloj.SISTEMA;
         
         IValidacionStrategy estrategia = new ValidacionBasicaStrategy();
         this.productoService = new ProductoService(repository, estrategia);
-        this.inventarioService = new InventarioService(repository);
+        this.inventarioService = new InventarioService(repository, productoService::getVersion);
         this.productoService.agregarObservador(new NotificadorConsola());
-        this.productoService.agregarObservador(new NotificadorLog());
+        this.productoService.agregarObservadorAsincrono(new NotificadorLog(), 1024, 
+                                                       PoliticaDesbordamiento.BLOQUEAR);
     }
 
     public InventarioFacade(IProductoRepository repository, IValidacionStrategy estrategia) {
         this.repository = repository;
+        this.persistencia = null;
+        this.reloj = Reloj.SISTEMA;
         this.productoService = new ProductoService(repository, estrategia);
-        this.inventarioService = new InventarioService(repository);
+        this.inventarioService = new InventarioService(repository, productoService::getVersion);
+    }
+
+    private InventarioFacade(IProductoRepository repository, GestorPersistencia persistencia, Reloj reloj) {
+        this.repository = repository;
+        this.persistencia = persistencia;
+        this.reloj = reloj;
+        this.productoService = new ProductoService(repository, new ValidacionBasicaStrategy(),
+                                                   persistencia.getDiario());
+        this.inventarioService = new InventarioService(repository, productoService::getVersion);
+        this.productoService.agregarObservador(new NotificadorConsola());
+        this.productoService.agregarObservadorAsincrono(new NotificadorLog(), 1024, 
+                                                       PoliticaDesbordamiento.BLOQUEAR);
+    }
+
+    // Reconstruye el inventario desde el directorio de datos y registra cada cambio en su diario
+    public static InventarioFacade conPersistencia(Path directorio) throws IOException {
+        RelojCacheado reloj = new RelojCacheado();
+        try {
+            ProductoRepositoryImpl repository = new ProductoRepositoryImpl(reloj);
+            GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, repository, true);
+            return new InventarioFacade(repository, persistencia, reloj);
+        } catch (IOException | RuntimeException e) {
+            reloj.close();
+            throw e;
+        }
+    }
+
+    public long tomarInstantanea() throws IOException {
+        if (persistencia == null) {
+            throw new IllegalStateException("El inventario no tiene persistencia configurada");
+        }
+        return persistencia.tomarInstantanea(repository);
+    }
+
+    public CompletableFuture<Long> tomarInstantaneaEnSegundoPlano() {
+        if (persistencia == null) {
+            throw new IllegalStateException("El inventario no tiene persistencia configurada");
+        }
+        return persistencia.tomarInstantaneaEnSegundoPlano(repository);
     }
 
     public Producto crearProductoSimple(String codigo, String nombre, TipoTela tipoTela,
                                        String color, double precio, int stockInicial) {
         Producto producto = new ProductoBuilder()
+                .conReloj(reloj)
                 .conCodigo(codigo)
                 .conNombre(nombre)
                 .conTipoTela(tipoTela)
@@ -100,6 +169,58 @@ public class InventarioFacade {
         }
     }
 
+    // Variantes sin consola ni excepciones para el rechazo, pensadas para alto volumen de ventas
+    public ResultadoStock intentarRegistrarEntrada(String codigoProducto, int cantidad) {
+        Producto producto = productoParaMovimiento(codigoProducto, cantidad);
+        return producto != null
+                ? productoService.intentarIncrementarStock(producto.getId(), cantidad)
+                : rechazoPorEntrada(codigoProducto, cantidad);
+    }
+
+    public ResultadoStock intentarRegistrarSalida(String codigoProducto, int cantidad) {
+        Producto producto = productoParaMovimiento(codigoProducto, cantidad);
+        return producto != null
+                ? productoService.intentarDecrementarStock(producto.getId(), cantidad)
+                : rechazoPorEntrada(codigoProducto, cantidad);
+    }
+
+    private Producto productoParaMovimiento(String codigoProducto, int cantidad) {
+        if (entradaInvalida(codigoProducto, cantidad)) {
+            return null;
+        }
+        return productoService.buscarPorCodigo(codigoProducto).orElse(null);
+    }
+
+    private static ResultadoStock rechazoPorEntrada(String codigoProducto, int cantidad) {
+        return entradaInvalida(codigoProducto, cantidad)
+                ? ResultadoStock.entradaInvalida()
+                : ResultadoStock.noEncontrado();
+    }
+
+    private static boolean entradaInvalida(String codigoProducto, int cantidad) {
+        return cantidad < 0 || codigoProducto == null || codigoProducto.trim().isEmpty();
+    }
+
+    public ReporteMovimientos registrarMovimientos(List<MovimientoStock> movimientos) {
+        ReporteMovimientos reporte = productoService.registrarMovimientos(movimientos);
+        
+        System.out.println(" Lote de movimientos procesado: " + reporte.getExitosos() + 
+                         " aplicados, " + reporte.getRechazados() + " rechazados");
+        return reporte;
+    }
+
+    public EstadisticasImportacion importarCsv(Path archivo, Path rechazos) throws IOException {
+        ImportadorCsv importador = new ImportadorCsv(productoService, productoService.getValidacionStrategy());
+        EstadisticasImportacion estadisticas = importador.importar(archivo, rechazos);
+        
+        System.out.println(" Importación CSV: " + estadisticas);
+        return estadisticas;
+    }
+
+    public long exportarCatalogo(OutputStream salida, FormatoExportacion formato) throws IOException {
+        return new ExportadorCatalogo(repository).exportar(salida, formato);
+    }
+
     public Optional<Producto> buscarProducto(String codigo) {
         return productoService.buscarPorCodigo(codigo);
     }
@@ -108,6 +229,15 @@ public class InventarioFacade {
         return productoService.obtenerTodos();
     }
 
+    // despuesDeCodigo: cursor de la página anterior (null para la primera)
+    public PaginaProductos listarProductosPagina(String despuesDeCodigo, int tamano) {
+        return productoService.obtenerPagina(despuesDeCodigo, tamano);
+    }
+
+    public PaginaProductos listarProductosPorTipoPagina(TipoTela tipo, String despuesDeCodigo, int tamano) {
+        return productoService.obtenerPaginaPorTipo(tipo, despuesDeCodigo, tamano);
+    }
+
     public List<Producto> listarProductosPorTipo(TipoTela tipo) {
         return productoService.buscarPorTipo(tipo);
     }
@@ -121,18 +251,26 @@ public class InventarioFacade {
         return productoService.buscarPorNombre(nombre);
     }
 
-    public Map<String, Object> obtenerResumenInventario() {
+    public ResumenInventario obtenerResumenInventario() {
         return inventarioService.obtenerResumenInventario();
     }
 
    
-    public Map<TipoTela, Map<String, Object>> obtenerEstadisticasPorTipo() {
+    public Map<TipoTela, EstadisticasTipo> obtenerEstadisticasPorTipo() {
         return inventarioService.obtenerEstadisticasPorTipo();
     }
 
     public void mostrarReporteInventario() {
-        String reporte = inventarioService.generarReporteTexto();
-        System.out.println(reporte);
+        try {
+            inventarioService.escribirReporte(System.out, new ReporteTexto());
+            System.out.println();
+        } catch (IOException e) {
+            System.err.println("Error al mostrar el reporte: " + e.getMessage());
+        }
+    }
+
+    public void escribirReporte(Appendable destino, FormatoReporte formato) throws IOException {
+        inventarioService.escribirReporte(destino, formato);
     }
 
     public List<Producto> obtenerTopProductosMasValiosos(int cantidad) {
@@ -147,6 +285,20 @@ public class InventarioFacade {
         productoService.agregarObservador(observador);
     }
 
+    public void cerrar() {
+        productoService.cerrar();
+        if (persistencia != null) {
+            try {
+                persistencia.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el diario: " + e.getMessage());
+            }
+        }
+        if (reloj instanceof RelojCacheado cacheado) {
+            cacheado.close();
+        }
+    }
+
     public void mostrarInformacionSistema() {
         System.out.println(" _______________________________________________________________ ");
         System.out.println("  SISTEMA DE INVENTARIO TEXTIL - v1.0.0");
@@ -0,0 +1,42 @@
+package com.inventario.importacion;
+
+public class EstadisticasImportacion {
+
+    private final long leidas;
+    private final long importadas;
+    private final long rechazadas;
+    private final long duracionMs;
+
+    EstadisticasImportacion(long leidas, long importadas, long rechazadas, long duracionMs) {
+        this.leidas = leidas;
+        this.importadas = importadas;
+        this.rechazadas = rechazadas;
+        this.duracionMs = duracionMs;
+    }
+
+    public long getLeidas() {
+        return leidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public double getFilasPorSegundo() {
+        return duracionMs > 0 ? leidas * 1000.0 / duracionMs : leidas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d filas leídas, %d importadas, %d rechazadas en %d ms (%.0f filas/s)",
+                             leidas, importadas, rechazadas, duracionMs, getFilasPorSegundo());
+    }
+}
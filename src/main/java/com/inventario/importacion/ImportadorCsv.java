@@ -0,0 +1,372 @@
+package com.inventario.importacion;
+
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import com.inventario.service.ProductoService;
+import com.inventario.strategy.IValidacionStrategy;
+import com.inventario.strategy.MotorValidacion;
+import com.inventario.strategy.ResultadoValidacion;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Importación masiva en tres etapas unidas por colas acotadas:
+ *   lectura (un hilo) -> conversión + validación (N hilos) -> guardado por lotes (hilo llamador)
+ * La memoria usada depende de la capacidad de las colas y del lote, no del tamaño del archivo.
+ *
+ * El CSV debe tener cabecera. Columnas obligatorias: codigo, nombre, tipo, precio;
+ * opcionales: color, stock, stock_minimo (si faltan se usan los valores del ProductoBuilder).
+ */
+public class ImportadorCsv {
+
+    private static final String[] CABECERA_RECHAZOS = {"linea", "motivo", "fila"};
+
+    private final ProductoService productoService;
+    // Reglas de la estrategia más las que antes aplicaba ProductoBuilder al convertir
+    private final MotorValidacion reglas;
+    private final int hilos;
+    private final int capacidadCola;
+    private final int tamanoLote;
+
+    public ImportadorCsv(ProductoService productoService, IValidacionStrategy validacion) {
+        this(productoService, validacion, Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+             8192, 1000);
+    }
+
+    public ImportadorCsv(ProductoService productoService, IValidacionStrategy validacion,
+                         int hilos, int capacidadCola, int tamanoLote) {
+        if (hilos < 1 || capacidadCola < 1 || tamanoLote < 1) {
+            throw new IllegalArgumentException("Hilos, capacidad de cola y tamaño de lote deben ser positivos");
+        }
+        this.productoService = productoService;
+        this.reglas = new MotorValidacion.Builder()
+                .conReglas(validacion.getMotor())
+                .conRegla(p -> p.getStockActual() >= 0, "El stock actual no puede ser negativo")
+                .conRegla(p -> p.getStockMinimo() >= 0, "El stock mínimo no puede ser negativo")
+                .build();
+        this.hilos = hilos;
+        this.capacidadCola = capacidadCola;
+        this.tamanoLote = tamanoLote;
+    }
+
+    // Cada fila descartada queda en 'rechazos' con su número de línea y el motivo
+    public EstadisticasImportacion importar(Path archivo, Path rechazos) throws IOException {
+        long inicio = System.nanoTime();
+        BlockingQueue<Fila> filas = new ArrayBlockingQueue<>(capacidadCola);
+        BlockingQueue<Fila> validas = new ArrayBlockingQueue<>(capacidadCola);
+        AtomicLong leidas = new AtomicLong();
+        AtomicReference<Exception> errorLectura = new AtomicReference<>();
+        ExecutorService etapas = Executors.newFixedThreadPool(hilos + 1, new FabricaHilos());
+
+        try (CSVReader lector = new CSVReaderBuilder(Files.newBufferedReader(archivo, StandardCharsets.UTF_8))
+                     .build();
+             Rechazos salidaRechazos = new Rechazos(rechazos)) {
+            Columnas columnas = Columnas.desde(leerCabecera(lector));
+
+            etapas.execute(() -> leer(lector, filas, leidas, errorLectura));
+            for (int i = 0; i < hilos; i++) {
+                etapas.execute(() -> convertir(columnas, filas, validas, salidaRechazos));
+            }
+            long importadas = guardar(validas, salidaRechazos);
+
+            if (errorLectura.get() != null) {
+                throw new IOException("Error al leer " + archivo + ": " + errorLectura.get().getMessage(),
+                                      errorLectura.get());
+            }
+            long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            return new EstadisticasImportacion(leidas.get(), importadas, salidaRechazos.getTotal(), duracionMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } finally {
+            // Si el guardado falla, lector y conversores quedan bloqueados en las colas: se interrumpen
+            etapas.shutdownNow();
+        }
+    }
+
+    private String[] leerCabecera(CSVReader lector) throws IOException {
+        try {
+            String[] cabecera = lector.readNext();
+            if (cabecera == null) {
+                throw new IOException("El archivo CSV está vacío");
+            }
+            return cabecera;
+        } catch (CsvValidationException e) {
+            throw new IOException("Cabecera CSV inválida: " + e.getMessage(), e);
+        }
+    }
+
+    private void leer(CSVReader lector, BlockingQueue<Fila> filas, AtomicLong leidas,
+                      AtomicReference<Exception> error) {
+        try {
+            try {
+                long linea = lector.getLinesRead() + 1;
+                String[] campos;
+                while ((campos = lector.readNext()) != null) {
+                    filas.put(new Fila(linea, campos, null));
+                    leidas.incrementAndGet();
+                    linea = lector.getLinesRead() + 1;
+                }
+            } catch (IOException | CsvValidationException e) {
+                error.set(e);
+            } finally {
+                for (int i = 0; i < hilos; i++) {
+                    filas.put(Fila.FIN);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void convertir(Columnas columnas, BlockingQueue<Fila> filas, BlockingQueue<Fila> validas,
+                           Rechazos rechazos) {
+        try {
+            try {
+                // Un resultado por hilo, reutilizado en cada fila: rechazar no lanza excepciones
+                ResultadoValidacion resultado = new ResultadoValidacion();
+                Fila fila;
+                while ((fila = filas.take()) != Fila.FIN) {
+                    Producto producto;
+                    try {
+                        producto = columnas.aProducto(fila.campos);
+                    } catch (RuntimeException e) {
+                        // Solo números mal escritos llegan aquí
+                        rechazos.registrar(fila, e.getMessage());
+                        continue;
+                    }
+                    if (reglas.validar(producto, resultado)) {
+                        validas.put(new Fila(fila.linea, fila.campos, producto));
+                    } else {
+                        rechazos.registrar(fila, resultado.getMensaje());
+                    }
+                }
+            } finally {
+                validas.put(Fila.FIN);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long guardar(BlockingQueue<Fila> validas, Rechazos rechazos) throws InterruptedException {
+        List<Fila> recibidas = new ArrayList<>(tamanoLote);
+        List<Fila> lote = new ArrayList<>(tamanoLote);
+        List<Producto> productos = new ArrayList<>(tamanoLote);
+        Set<Producto> guardados = Collections.newSetFromMap(new IdentityHashMap<>());
+        long importadas = 0;
+        int pendientes = hilos;
+
+        while (pendientes > 0) {
+            recibidas.add(validas.take());
+            validas.drainTo(recibidas, tamanoLote - 1);
+            for (Fila fila : recibidas) {
+                if (fila == Fila.FIN) {
+                    pendientes--;
+                    continue;
+                }
+                lote.add(fila);
+                if (lote.size() == tamanoLote) {
+                    importadas += guardarLote(lote, productos, guardados, rechazos);
+                }
+            }
+            recibidas.clear();
+        }
+        if (!lote.isEmpty()) {
+            importadas += guardarLote(lote, productos, guardados, rechazos);
+        }
+        return importadas;
+    }
+
+    private int guardarLote(List<Fila> lote, List<Producto> productos, Set<Producto> guardados,
+                            Rechazos rechazos) {
+        productos.clear();
+        for (Fila fila : lote) {
+            productos.add(fila.producto);
+        }
+        guardados.clear();
+        guardados.addAll(productoService.crearProductosEnLote(productos));
+
+        for (Fila fila : lote) {
+            if (!guardados.contains(fila.producto)) {
+                rechazos.registrar(fila, "Ya existe un producto con el código: " + fila.producto.getCodigo());
+            }
+        }
+        lote.clear();
+        return guardados.size();
+    }
+
+    private static final class Fila {
+        static final Fila FIN = new Fila(-1, null, null);
+
+        final long linea;
+        final String[] campos;
+        final Producto producto;
+
+        Fila(long linea, String[] campos, Producto producto) {
+            this.linea = linea;
+            this.campos = campos;
+            this.producto = producto;
+        }
+    }
+
+    // Posición de cada columna según la cabecera (-1 si no está)
+    private static final class Columnas {
+        private final int codigo;
+        private final int nombre;
+        private final int tipo;
+        private final int color;
+        private final int precio;
+        private final int stock;
+        private final int stockMinimo;
+
+        private Columnas(String[] cabecera) {
+            this.codigo = posicion(cabecera, "codigo");
+            this.nombre = posicion(cabecera, "nombre");
+            this.tipo = posicion(cabecera, "tipo");
+            this.color = posicion(cabecera, "color");
+            this.precio = posicion(cabecera, "precio");
+            this.stock = posicion(cabecera, "stock");
+            this.stockMinimo = posicion(cabecera, "stock_minimo");
+        }
+
+        static Columnas desde(String[] cabecera) throws IOException {
+            Columnas columnas = new Columnas(cabecera);
+            if (columnas.codigo < 0 || columnas.nombre < 0 || columnas.tipo < 0 || columnas.precio < 0) {
+                throw new IOException("La cabecera debe incluir las columnas codigo, nombre, tipo y precio");
+            }
+            return columnas;
+        }
+
+        private static int posicion(String[] cabecera, String nombre) {
+            for (int i = 0; i < cabecera.length; i++) {
+                String columna = cabecera[i].trim().toLowerCase(Locale.ROOT);
+                // La primera columna puede traer la marca BOM de UTF-8
+                if (i == 0 && !columna.isEmpty() && columna.charAt(0) == '\uFEFF') {
+                    columna = columna.substring(1);
+                }
+                if (columna.equals(nombre)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Sin validar: un tipo desconocido queda en null y lo rechazan las reglas.
+        // Los valores por omisión son los de ProductoBuilder
+        Producto aProducto(String[] campos) {
+            return new Producto(
+                    campo(campos, codigo),
+                    campo(campos, nombre),
+                    TipoTela.buscar(campo(campos, tipo)),
+                    presente(campos, color) ? campo(campos, color) : "Sin especificar",
+                    numero(campos, precio, "precio"),
+                    presente(campos, stock) ? entero(campos, stock, "stock") : 0,
+                    presente(campos, stockMinimo) ? entero(campos, stockMinimo, "stock_minimo") : 5);
+        }
+
+        private static boolean presente(String[] campos, int indice) {
+            return indice >= 0 && indice < campos.length && !campos[indice].trim().isEmpty();
+        }
+
+        private static String campo(String[] campos, int indice) {
+            return indice < campos.length ? campos[indice].trim() : null;
+        }
+
+        private static double numero(String[] campos, int indice, String columna) {
+            String valor = campo(campos, indice);
+            if (valor == null) {
+                throw new IllegalArgumentException("Falta el valor de " + columna);
+            }
+            double numero;
+            try {
+                numero = Double.parseDouble(valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor numérico inválido en " + columna + ": " + valor);
+            }
+            // parseDouble acepta "Infinity" y "NaN", que pasarían reglas como precio > 0
+            if (!Double.isFinite(numero)) {
+                throw new IllegalArgumentException("Valor numérico no finito en " + columna + ": " + valor);
+            }
+            return numero;
+        }
+
+        private static int entero(String[] campos, int indice, String columna) {
+            String valor = campo(campos, indice);
+            try {
+                return Integer.parseInt(valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor entero inválido en " + columna + ": " + valor);
+            }
+        }
+    }
+
+    // Archivo de rechazos compartido por los conversores y el guardado
+    private static final class Rechazos implements AutoCloseable {
+        private final CSVWriter escritor;
+        // La fila original se vuelve a codificar como línea CSV con sus comillas: unir los campos
+        // con comas cambiaría la fila si alguno contenía comas o comillas
+        private final StringWriter filaOriginal = new StringWriter();
+        private final CSVWriter codificadorFila = new CSVWriter(filaOriginal, CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.DEFAULT_QUOTE_CHARACTER, CSVWriter.DEFAULT_ESCAPE_CHARACTER, "");
+        private final AtomicInteger total = new AtomicInteger();
+
+        Rechazos(Path archivo) throws IOException {
+            Writer salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8);
+            this.escritor = new CSVWriter(salida);
+            escritor.writeNext(CABECERA_RECHAZOS, false);
+        }
+
+        void registrar(Fila fila, String motivo) {
+            synchronized (this) {
+                filaOriginal.getBuffer().setLength(0);
+                codificadorFila.writeNext(fila.campos, false);
+                escritor.writeNext(new String[] {String.valueOf(fila.linea), motivo, filaOriginal.toString()}, false);
+            }
+            total.incrementAndGet();
+        }
+
+        long getTotal() {
+            return total.get();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            escritor.close();
+        }
+    }
+
+    private static final class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarea) {
+            Thread hilo = new Thread(tarea, "importacion-csv-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventario.model;
+
+public class MovimientoStock {
+
+    private final String codigoProducto;
+    private final int cantidad;
+    private final TipoMovimiento tipo;
+
+    public MovimientoStock(String codigoProducto, int cantidad, TipoMovimiento tipo) {
+        this.codigoProducto = codigoProducto;
+        this.cantidad = cantidad;
+        this.tipo = tipo;
+    }
+
+    public static MovimientoStock entrada(String codigoProducto, int cantidad) {
+        return new MovimientoStock(codigoProducto, cantidad, TipoMovimiento.ENTRADA);
+    }
+
+    public static MovimientoStock salida(String codigoProducto, int cantidad) {
+        return new MovimientoStock(codigoProducto, cantidad, TipoMovimiento.SALIDA);
+    }
+
+    public String getCodigoProducto() {
+        return codigoProducto;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public TipoMovimiento getTipo() {
+        return tipo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MovimientoStock{codigo='%s', cantidad=%d, tipo=%s}",
+                codigoProducto, cantidad, tipo);
+    }
+}
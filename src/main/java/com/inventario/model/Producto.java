@@ -1,10 +1,18 @@
 package com.inventario.model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 public class Producto {
     
+    private static final AtomicIntegerFieldUpdater<Producto> STOCK =
+            AtomicIntegerFieldUpdater.newUpdater(Producto.class, "stockActual");
+    // Marca de "sin fecha" en los campos epoch
+    public static final long SIN_FECHA = Long.MIN_VALUE;
+    
     // Atributos
     private Long id;
     private String codigo;
@@ -12,21 +20,52 @@ public class Producto {
     private TipoTela tipoTela;
     private String color;
     private double precio;
-    private int stockActual;
+    private volatile int stockActual;
     private int stockMinimo;
-    private LocalDateTime fechaCreacion;
-    private LocalDateTime fechaActualizacion;
+    // Milisegundos desde la época; los LocalDateTime se construyen solo al pedirlos
+    private long fechaCreacion;
+    private long fechaActualizacion;
     private boolean activo;
+    // Fuente de las marcas de tiempo de este producto; el repositorio le asigna la suya al guardarlo
+    private Reloj reloj;
 
     public Producto() {
-        this.fechaCreacion = LocalDateTime.now();
-        this.fechaActualizacion = LocalDateTime.now();
+        this(Reloj.SISTEMA);
+    }
+
+    public Producto(Reloj reloj) {
+        this.reloj = relojValido(reloj);
+        long ahora = reloj.ahoraMillis();
+        this.fechaCreacion = ahora;
+        this.fechaActualizacion = ahora;
         this.activo = true;
     }
 
+    private static Reloj relojValido(Reloj reloj) {
+        if (reloj == null) {
+            throw new IllegalArgumentException("El reloj no puede ser null");
+        }
+        return reloj;
+    }
+
+    private static LocalDateTime aFecha(long millis) {
+        return millis != SIN_FECHA
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault())
+                : null;
+    }
+
+    private static long aMillis(LocalDateTime fecha) {
+        return fecha != null ? fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : SIN_FECHA;
+    }
+
     public Producto(String codigo, String nombre, TipoTela tipoTela, 
                    String color, double precio, int stockActual, int stockMinimo) {
-        this();
+        this(codigo, nombre, tipoTela, color, precio, stockActual, stockMinimo, Reloj.SISTEMA);
+    }
+
+    public Producto(String codigo, String nombre, TipoTela tipoTela, 
+                   String color, double precio, int stockActual, int stockMinimo, Reloj reloj) {
+        this(reloj);
         this.codigo = codigo;
         this.nombre = nombre;
         this.tipoTela = tipoTela;
@@ -36,6 +75,14 @@ public class Producto {
         this.stockMinimo = stockMinimo;
     }
 
+    public Reloj getReloj() {
+        return reloj;
+    }
+
+    public void setReloj(Reloj reloj) {
+        this.reloj = relojValido(reloj);
+    }
+
     public Long getId() {
         return id;
     }
@@ -96,7 +143,7 @@ public class Producto {
             throw new IllegalArgumentException("El stock no puede ser negativo");
         }
         this.stockActual = stockActual;
-        this.fechaActualizacion = LocalDateTime.now();
+        this.fechaActualizacion = reloj.ahoraMillis();
     }
 
     public int getStockMinimo() {
@@ -111,18 +158,34 @@ public class Producto {
     }
 
     public LocalDateTime getFechaCreacion() {
-        return fechaCreacion;
+        return aFecha(fechaCreacion);
     }
 
     public void setFechaCreacion(LocalDateTime fechaCreacion) {
-        this.fechaCreacion = fechaCreacion;
+        this.fechaCreacion = aMillis(fechaCreacion);
     }
 
     public LocalDateTime getFechaActualizacion() {
-        return fechaActualizacion;
+        return aFecha(fechaActualizacion);
     }
 
     public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = aMillis(fechaActualizacion);
+    }
+
+    public long getFechaCreacionMillis() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacionMillis(long fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public long getFechaActualizacionMillis() {
+        return fechaActualizacion;
+    }
+
+    public void setFechaActualizacionMillis(long fechaActualizacion) {
         this.fechaActualizacion = fechaActualizacion;
     }
 
@@ -139,25 +202,57 @@ public class Producto {
     }
 
     public void incrementarStock(int cantidad) {
-        if (cantidad < 0) {
+        if (!intentarIncrementarStock(cantidad).isExitoso()) {
             throw new IllegalArgumentException("La cantidad debe ser positiva");
         }
-        this.stockActual += cantidad;
-        this.fechaActualizacion = LocalDateTime.now();
     }
 
     public void decrementarStock(int cantidad) {
-        if (cantidad < 0) {
+        ResultadoStock resultado = intentarDecrementarStock(cantidad);
+        if (resultado.getEstado() == ResultadoStock.Estado.ENTRADA_INVALIDA) {
             throw new IllegalArgumentException("La cantidad debe ser positiva");
         }
-        if (this.stockActual < cantidad) {
+        if (resultado.getEstado() == ResultadoStock.Estado.STOCK_INSUFICIENTE) {
             throw new IllegalStateException(
                 String.format("Stock insuficiente. Disponible: %d, Solicitado: %d", 
-                             stockActual, cantidad)
+                             resultado.getDisponible(), cantidad)
             );
         }
-        this.stockActual -= cantidad;
-        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    // Variantes sin excepciones: el rechazo se informa en el resultado
+    public ResultadoStock intentarIncrementarStock(int cantidad) {
+        if (cantidad < 0) {
+            return ResultadoStock.entradaInvalida();
+        }
+        int resultante = STOCK.addAndGet(this, cantidad);
+        this.fechaActualizacion = reloj.ahoraMillis();
+        return ResultadoStock.exito(this, resultante);
+    }
+
+    public ResultadoStock intentarDecrementarStock(int cantidad) {
+        if (cantidad < 0) {
+            return ResultadoStock.entradaInvalida();
+        }
+        // Compare-and-set: nunca descuenta más de lo disponible aunque haya ventas concurrentes
+        int disponible;
+        do {
+            disponible = this.stockActual;
+            if (disponible < cantidad) {
+                return ResultadoStock.stockInsuficiente(this, disponible);
+            }
+        } while (!STOCK.compareAndSet(this, disponible, disponible - cantidad));
+        this.fechaActualizacion = reloj.ahoraMillis();
+        return ResultadoStock.exito(this, disponible - cantidad);
+    }
+
+    public Producto copia() {
+        Producto copia = new Producto(codigo, nombre, tipoTela, color, precio, stockActual, stockMinimo, reloj);
+        copia.id = id;
+        copia.fechaCreacion = fechaCreacion;
+        copia.fechaActualizacion = fechaActualizacion;
+        copia.activo = activo;
+        return copia;
     }
 
     public double getValorInventario() {
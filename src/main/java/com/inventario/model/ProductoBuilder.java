@@ -10,12 +10,14 @@ public class ProductoBuilder {
     private double precio;
     private int stockActual;
     private int stockMinimo;
+    private Reloj reloj;
 
     public ProductoBuilder() {
         this.stockActual = 0;
         this.stockMinimo = 5;
         this.tipoTela = TipoTela.ALGODON;
         this.color = "Sin especificar";
+        this.reloj = Reloj.SISTEMA;
     }
 
 
@@ -54,9 +56,14 @@ public class ProductoBuilder {
         return this;
     }
 
+    public ProductoBuilder conReloj(Reloj reloj) {
+        this.reloj = reloj;
+        return this;
+    }
+
     public Producto build() {
         validar();
-        return new Producto(codigo, nombre, tipoTela, color, precio, stockActual, stockMinimo);
+        return new Producto(codigo, nombre, tipoTela, color, precio, stockActual, stockMinimo, reloj);
     }
 
     private void validar() {
@@ -78,6 +85,9 @@ public class ProductoBuilder {
         if (stockMinimo < 0) {
             throw new IllegalStateException("El stock mínimo no puede ser negativo");
         }
+        if (reloj == null) {
+            throw new IllegalStateException("El reloj es obligatorio");
+        }
     }
 
     public static ProductoBuilder desde(Producto producto) {
@@ -88,7 +98,8 @@ public class ProductoBuilder {
                 .conColor(producto.getColor())
                 .conPrecio(producto.getPrecio())
                 .conStockActual(producto.getStockActual())
-                .conStockMinimo(producto.getStockMinimo());
+                .conStockMinimo(producto.getStockMinimo())
+                .conReloj(producto.getReloj());
     }
     
     public ProductoBuilder reset() {
@@ -99,6 +110,7 @@ public class ProductoBuilder {
         this.precio = 0;
         this.stockActual = 0;
         this.stockMinimo = 5;
+        this.reloj = Reloj.SISTEMA;
         return this;
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.inventario.model;
+
+// Fuente de tiempo de los productos, en milisegundos desde la época
+@FunctionalInterface
+public interface Reloj {
+
+    Reloj SISTEMA = System::currentTimeMillis;
+
+    long ahoraMillis();
+}
@@ -0,0 +1,46 @@
+package com.inventario.model;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Reloj de resolución gruesa: un hilo daemon refresca la hora cada 'periodoMs' y las lecturas
+ * solo leen un campo volátil. Las marcas pueden atrasarse hasta un periodo.
+ * Cerrado, vuelve a leer la hora del sistema en cada llamada.
+ */
+public class RelojCacheado implements Reloj, AutoCloseable {
+
+    private final ScheduledExecutorService ticker;
+    private volatile long ahora;
+    private volatile boolean cerrado;
+
+    public RelojCacheado() {
+        this(1);
+    }
+
+    public RelojCacheado(long periodoMs) {
+        if (periodoMs < 1) {
+            throw new IllegalArgumentException("El periodo debe ser de al menos 1 ms");
+        }
+        this.ahora = System.currentTimeMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "reloj-cacheado");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ticker.scheduleAtFixedRate(() -> ahora = System.currentTimeMillis(),
+                periodoMs, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long ahoraMillis() {
+        return cerrado ? System.currentTimeMillis() : ahora;
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        ticker.shutdownNow();
+    }
+}
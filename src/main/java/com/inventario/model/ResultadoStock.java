@@ -0,0 +1,75 @@
+package com.inventario.model;
+
+/*
+ * Resultado de una operación de stock sin excepciones. Los rechazos sin datos propios
+ * (no encontrado, entrada inválida) son instancias compartidas.
+ */
+public final class ResultadoStock {
+
+    public enum Estado {
+        EXITO,
+        NO_ENCONTRADO,
+        STOCK_INSUFICIENTE,
+        ENTRADA_INVALIDA
+    }
+
+    private static final ResultadoStock NO_ENCONTRADO = new ResultadoStock(Estado.NO_ENCONTRADO, null, -1);
+    private static final ResultadoStock ENTRADA_INVALIDA = new ResultadoStock(Estado.ENTRADA_INVALIDA, null, -1);
+
+    private final Estado estado;
+    private final Producto producto;
+    private final int disponible;
+
+    private ResultadoStock(Estado estado, Producto producto, int disponible) {
+        this.estado = estado;
+        this.producto = producto;
+        this.disponible = disponible;
+    }
+
+    public static ResultadoStock exito(Producto producto, int stockResultante) {
+        return new ResultadoStock(Estado.EXITO, producto, stockResultante);
+    }
+
+    // 'disponible' es el stock observado al rechazar, no una lectura posterior
+    public static ResultadoStock stockInsuficiente(Producto producto, int disponible) {
+        return new ResultadoStock(Estado.STOCK_INSUFICIENTE, producto, disponible);
+    }
+
+    public static ResultadoStock noEncontrado() {
+        return NO_ENCONTRADO;
+    }
+
+    public static ResultadoStock entradaInvalida() {
+        return ENTRADA_INVALIDA;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public boolean isExitoso() {
+        return estado == Estado.EXITO;
+    }
+
+    // null si no se encontró el producto o la entrada era inválida
+    public Producto getProducto() {
+        return producto;
+    }
+
+    // Stock tras el movimiento (EXITO) o stock que no alcanzó (STOCK_INSUFICIENTE); -1 en los demás casos
+    public int getDisponible() {
+        return disponible;
+    }
+
+    @Override
+    public String toString() {
+        switch (estado) {
+            case EXITO:
+                return "EXITO: stock " + disponible;
+            case STOCK_INSUFICIENTE:
+                return "STOCK_INSUFICIENTE: disponible " + disponible;
+            default:
+                return estado.name();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.inventario.model;
+
+public enum TipoMovimiento {
+    ENTRADA("Entrada"),
+    SALIDA("Salida");
+
+    private final String nombre;
+
+    TipoMovimiento(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -10,6 +10,8 @@ public enum TipoTela {
     LANA("Lana", "Material natural cálido para invierno"),
     NYLON("Nylon", "Material sintético resistente y ligero");
 
+    private static final TipoTela[] VALORES = values();
+
     private final String nombre;
     private final String descripcion;
 
@@ -32,12 +34,21 @@ public enum TipoTela {
     }
     
     public static TipoTela fromString(String texto) {
-        for (TipoTela tipo : TipoTela.values()) {
+        TipoTela tipo = buscar(texto);
+        if (tipo == null) {
+            throw new IllegalArgumentException("Tipo de tela no válido: " + texto);
+        }
+        return tipo;
+    }
+
+    // Como fromString, pero devuelve null en lugar de lanzar
+    public static TipoTela buscar(String texto) {
+        for (TipoTela tipo : VALORES) {
             if (tipo.nombre.equalsIgnoreCase(texto) || 
                 tipo.name().equalsIgnoreCase(texto)) {
                 return tipo;
             }
         }
-        throw new IllegalArgumentException("Tipo de tela no válido: " + texto);
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.inventario.observer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class EscritorLogBuffer implements AutoCloseable {
+
+    public enum Durabilidad {
+        // El lote queda en la caché del sistema operativo
+        SISTEMA_OPERATIVO,
+        // fsync tras cada lote, para auditoría
+        FSYNC_POR_LOTE
+    }
+
+    private static final DateTimeFormatter FORMATO_FECHA =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final DateTimeFormatter FORMATO_ROTACION =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String FIN_LINEA = System.lineSeparator();
+    // Forma del prefijo de cada línea, solo para medir su longitud
+    private static final String PREFIJO_LINEA = "[dd/MM/yyyy HH:mm:ss]";
+
+    private final Path archivo;
+    private final int umbralBytes;
+    private final long tamanoMaximo;
+    private final boolean rotarDiariamente;
+    private final Durabilidad durabilidad;
+    private final ZoneId zona;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder codificador;
+    private final ScheduledExecutorService temporizador;
+
+    private FileChannel canal;
+    // Sin temporizador tras el cierre: cada escritura se vuelca y libera el archivo en el acto
+    private boolean cerrado;
+    private long tamanoActual;
+    private long diaActual;
+    private long segundoCacheado = Long.MIN_VALUE;
+    private String prefijoCacheado;
+    private long diaCacheado;
+
+    public EscritorLogBuffer(Path archivo, int umbralBytes, long intervaloMs, long tamanoMaximo,
+                             boolean rotarDiariamente, Durabilidad durabilidad) {
+        this.archivo = archivo;
+        this.umbralBytes = umbralBytes;
+        this.tamanoMaximo = tamanoMaximo;
+        this.rotarDiariamente = rotarDiariamente;
+        this.durabilidad = durabilidad;
+        this.zona = ZoneId.systemDefault();
+        this.buffer = ByteBuffer.allocateDirect(Math.max(umbralBytes, 1024) * 2);
+        this.codificador = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        // Commit por tiempo: lo acumulado nunca espera más de intervaloMs en memoria
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "volcado-" + archivo.getFileName());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.temporizador.scheduleWithFixedDelay(this::volcarPendiente, intervaloMs, intervaloMs,
+                                                 TimeUnit.MILLISECONDS);
+    }
+
+    // Rota solo por tamaño; la rotación diaria se pide explícitamente en el constructor
+    public static EscritorLogBuffer porDefecto(Path archivo) {
+        return new EscritorLogBuffer(archivo, 32 * 1024, 200, 50L * 1024 * 1024, false,
+                                     Durabilidad.SISTEMA_OPERATIVO);
+    }
+
+    public synchronized void escribir(CharSequence mensaje) {
+        try {
+            long ahora = System.currentTimeMillis();
+            String prefijo = prefijo(ahora);
+            rotarSiCorresponde();
+
+            codificar(prefijo);
+            codificar(mensaje);
+            codificar(FIN_LINEA);
+
+            if (cerrado) {
+                volcar();
+                cerrarCanal();
+            } else if (buffer.position() >= umbralBytes) {
+                volcar();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al escribir en log: " + e.getMessage());
+        }
+    }
+
+    // "[dd/MM/yyyy HH:mm:ss] " se formatea una vez por segundo
+    private String prefijo(long ahora) {
+        long segundo = Math.floorDiv(ahora, 1000);
+        if (segundo != segundoCacheado) {
+            LocalDateTime fecha = LocalDateTime.ofInstant(Instant.ofEpochMilli(ahora), zona);
+            prefijoCacheado = "[" + fecha.format(FORMATO_FECHA) + "] ";
+            diaCacheado = fecha.toLocalDate().toEpochDay();
+            segundoCacheado = segundo;
+        }
+        return prefijoCacheado;
+    }
+
+    private void codificar(CharSequence texto) throws IOException {
+        CharBuffer entrada = CharBuffer.wrap(texto);
+        while (codificador.encode(entrada, buffer, true) == CoderResult.OVERFLOW) {
+            volcar();
+        }
+        codificador.reset();
+    }
+
+    private void abrirSiHaceFalta() throws IOException {
+        if (canal != null) {
+            return;
+        }
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                 StandardOpenOption.APPEND);
+        tamanoActual = canal.size();
+        diaActual = rotarDiariamente && tamanoActual > 0 ? diaUltimaLinea() : diaCacheado;
+    }
+
+    // Día del prefijo de la última línea escrita. La fecha de modificación no sirve: un checkout
+    // o una copia la cambian. Sin una línea reconocible se toma el día actual y no se rota
+    private long diaUltimaLinea() throws IOException {
+        int leer = (int) Math.min(tamanoActual, 4096);
+        ByteBuffer cola = ByteBuffer.allocate(leer);
+        try (FileChannel lectura = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long posicion = tamanoActual - leer;
+            while (cola.hasRemaining()) {
+                if (lectura.read(cola, posicion + cola.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        String texto = new String(cola.array(), 0, cola.position(), StandardCharsets.UTF_8).stripTrailing();
+        int inicio = texto.lastIndexOf('\n') + 1;
+        String fecha = PREFIJO_LINEA.length() <= texto.length() - inicio
+                ? texto.substring(inicio + 1, inicio + PREFIJO_LINEA.length() - 1)
+                : "";
+        try {
+            return LocalDateTime.parse(fecha, FORMATO_FECHA).toLocalDate().toEpochDay();
+        } catch (DateTimeParseException e) {
+            return diaCacheado;
+        }
+    }
+
+    private void rotarSiCorresponde() throws IOException {
+        abrirSiHaceFalta();
+        boolean cambioDia = rotarDiariamente && tamanoActual > 0 && diaCacheado != diaActual;
+        boolean excedeTamano = tamanoMaximo > 0 && tamanoActual + buffer.position() >= tamanoMaximo;
+        if (!cambioDia && !excedeTamano) {
+            return;
+        }
+
+        volcar();
+        canal.close();
+        canal = null;
+        Path rotado = archivo.resolveSibling(archivo.getFileName() + "." +
+                LocalDateTime.now(zona).format(FORMATO_ROTACION));
+        Files.move(archivo, rotado, StandardCopyOption.ATOMIC_MOVE);
+        abrirSiHaceFalta();
+        diaActual = diaCacheado;
+    }
+
+    private void volcar() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        abrirSiHaceFalta();
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            tamanoActual += canal.write(buffer);
+        }
+        buffer.clear();
+
+        if (durabilidad == Durabilidad.FSYNC_POR_LOTE) {
+            canal.force(false);
+        }
+    }
+
+    private synchronized void volcarPendiente() {
+        try {
+            volcar();
+        } catch (IOException e) {
+            System.err.println("Error al escribir en log: " + e.getMessage());
+        }
+    }
+
+    public synchronized void vaciar() {
+        volcarPendiente();
+    }
+
+    // Vuelca lo pendiente, detiene el temporizador y libera el archivo; una escritura posterior
+    // lo abre, se vuelca sin esperar y lo vuelve a cerrar
+    @Override
+    public synchronized void close() {
+        cerrado = true;
+        temporizador.shutdown();
+        volcarPendiente();
+        cerrarCanal();
+    }
+
+    private void cerrarCanal() {
+        if (canal != null) {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar log: " + e.getMessage());
+            }
+            canal = null;
+        }
+    }
+}
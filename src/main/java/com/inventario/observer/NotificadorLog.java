@@ -1,55 +1,70 @@
 package com.inventario.observer;
 
 import com.inventario.model.Producto;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import com.inventario.reporte.Formatos;
+import java.nio.file.Path;
 
-public class NotificadorLog implements IObservador {
+public class NotificadorLog implements IObservador, AutoCloseable {
     
     private static final String ARCHIVO_LOG = "inventario.log";
-    private static final DateTimeFormatter FORMATO_FECHA = 
-            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
-    private void escribirLog(String mensaje) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(ARCHIVO_LOG, true))) {
-            String timestamp = LocalDateTime.now().format(FORMATO_FECHA);
-            writer.println("[" + timestamp + "] " + mensaje);
-        } catch (IOException e) {
-            System.err.println("Error al escribir en log: " + e.getMessage());
-        }
+    private final EscritorLogBuffer escritor;
+
+    public NotificadorLog() {
+        this(EscritorLogBuffer.porDefecto(Path.of(ARCHIVO_LOG)));
+    }
+
+    public NotificadorLog(EscritorLogBuffer escritor) {
+        this.escritor = escritor;
+    }
+
+    private void escribirLog(CharSequence mensaje) {
+        escritor.escribir(mensaje);
     }
 
     @Override
     public void onProductoAgregado(Producto producto) {
-        escribirLog(String.format("PRODUCTO_AGREGADO | Código: %s | Nombre: %s | Tipo: %s | Precio: %.2f",
-                producto.getCodigo(), producto.getNombre(), 
-                producto.getTipoTela(), producto.getPrecio()));
+        StringBuilder sb = new StringBuilder(128)
+                .append("PRODUCTO_AGREGADO | Código: ").append(producto.getCodigo())
+                .append(" | Nombre: ").append(producto.getNombre())
+                .append(" | Tipo: ").append(producto.getTipoTela())
+                .append(" | Precio: ");
+        escribirLog(Formatos.agregarDecimal(sb, producto.getPrecio()));
     }
 
     @Override
     public void onProductoActualizado(Producto producto) {
-        escribirLog(String.format("PRODUCTO_ACTUALIZADO | Código: %s | Stock: %d/%d",
-                producto.getCodigo(), producto.getStockActual(), producto.getStockMinimo()));
+        escribirLog(new StringBuilder(64)
+                .append("PRODUCTO_ACTUALIZADO | Código: ").append(producto.getCodigo())
+                .append(" | Stock: ").append(producto.getStockActual())
+                .append('/').append(producto.getStockMinimo()));
     }
 
     @Override
     public void onProductoEliminado(Producto producto) {
-        escribirLog(String.format("PRODUCTO_ELIMINADO | Código: %s | Nombre: %s",
-                producto.getCodigo(), producto.getNombre()));
+        escribirLog(new StringBuilder(96)
+                .append("PRODUCTO_ELIMINADO | Código: ").append(producto.getCodigo())
+                .append(" | Nombre: ").append(producto.getNombre()));
     }
 
     @Override
     public void onStockBajo(Producto producto) {
-        escribirLog(String.format("ALERTA_STOCK_BAJO | Código: %s | Stock: %d | Mínimo: %d",
-                producto.getCodigo(), producto.getStockActual(), producto.getStockMinimo()));
+        escribirLog(new StringBuilder(80)
+                .append("ALERTA_STOCK_BAJO | Código: ").append(producto.getCodigo())
+                .append(" | Stock: ").append(producto.getStockActual())
+                .append(" | Mínimo: ").append(producto.getStockMinimo()));
     }
 
     @Override
     public void onStockCritico(Producto producto) {
-        escribirLog(String.format("CRITICO_SIN_STOCK | Código: %s | Nombre: %s | Stock: %d",
-                producto.getCodigo(), producto.getNombre(), producto.getStockActual()));
+        escribirLog(new StringBuilder(96)
+                .append("CRITICO_SIN_STOCK | Código: ").append(producto.getCodigo())
+                .append(" | Nombre: ").append(producto.getNombre())
+                .append(" | Stock: ").append(producto.getStockActual()));
+    }
+
+    @Override
+    public void close() {
+        escritor.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,259 @@
+package com.inventario.observer;
+
+import com.inventario.model.Producto;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ObservadorAsincrono implements IObservador, AutoCloseable {
+
+    private enum TipoEvento {
+        AGREGADO, ACTUALIZADO, ELIMINADO, STOCK_BAJO, STOCK_CRITICO
+    }
+
+    private static final class Evento {
+        private final TipoEvento tipo;
+        private final Producto producto;
+
+        private Evento(TipoEvento tipo, Producto producto) {
+            this.tipo = tipo;
+            this.producto = producto;
+        }
+    }
+
+    private static final Object FIN = new Object();
+
+    // Observadores sin cerrar, para despacharlos al terminar la JVM. Referencias débiles:
+    // el gancho de cierre no retiene a quien los creó
+    private static final Set<ObservadorAsincrono> ABIERTOS =
+            Collections.newSetFromMap(new WeakHashMap<>());
+    private static boolean ganchoRegistrado;
+
+    private static void registrar(ObservadorAsincrono observador) {
+        synchronized (ABIERTOS) {
+            ABIERTOS.add(observador);
+            if (!ganchoRegistrado) {
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(ObservadorAsincrono::cerrarAbiertos, "cierre-observadores"));
+                ganchoRegistrado = true;
+            }
+        }
+    }
+
+    private static void cerrarAbiertos() {
+        List<ObservadorAsincrono> abiertos;
+        synchronized (ABIERTOS) {
+            abiertos = new ArrayList<>(ABIERTOS);
+        }
+        abiertos.forEach(ObservadorAsincrono::close);
+    }
+
+    private final IObservador destino;
+    private final PoliticaDesbordamiento politica;
+    // Con COALESCER la cola lleva claves y el evento vigente vive en 'coalescidos'
+    private final BlockingQueue<Object> cola;
+    private final Map<String, Evento> coalescidos;
+    private final Thread despachador;
+    private final AtomicLong pendientes;
+    private final AtomicLong descartados;
+    private final ReentrantReadWriteLock candadoCierre;
+    private volatile boolean cerrado;
+
+    public ObservadorAsincrono(IObservador destino, int capacidad, PoliticaDesbordamiento politica) {
+        if (destino == null || politica == null || capacidad <= 0) {
+            throw new IllegalArgumentException("Destino, política y capacidad (>0) son obligatorios");
+        }
+        this.destino = destino;
+        this.politica = politica;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.coalescidos = new ConcurrentHashMap<>();
+        this.pendientes = new AtomicLong();
+        this.descartados = new AtomicLong();
+        this.candadoCierre = new ReentrantReadWriteLock();
+        this.despachador = new Thread(this::despachar, "despachador-" + destino.getClass().getSimpleName());
+        this.despachador.setDaemon(true);
+        this.despachador.start();
+        registrar(this);
+    }
+
+    public IObservador getDestino() {
+        return destino;
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    @Override
+    public void onProductoAgregado(Producto producto) {
+        publicar(TipoEvento.AGREGADO, producto);
+    }
+
+    @Override
+    public void onProductoActualizado(Producto producto) {
+        publicar(TipoEvento.ACTUALIZADO, producto);
+    }
+
+    @Override
+    public void onProductoEliminado(Producto producto) {
+        publicar(TipoEvento.ELIMINADO, producto);
+    }
+
+    @Override
+    public void onStockBajo(Producto producto) {
+        publicar(TipoEvento.STOCK_BAJO, producto);
+    }
+
+    @Override
+    public void onStockCritico(Producto producto) {
+        publicar(TipoEvento.STOCK_CRITICO, producto);
+    }
+
+    private void publicar(TipoEvento tipo, Producto producto) {
+        candadoCierre.readLock().lock();
+        try {
+            if (cerrado) {
+                // El destino ya está cerrado (o vaciándose): el evento se descarta
+                descartados.incrementAndGet();
+            } else {
+                encolar(tipo, producto);
+            }
+        } finally {
+            candadoCierre.readLock().unlock();
+        }
+    }
+
+    private void encolar(TipoEvento tipo, Producto producto) {
+        // Copia: el producto vivo puede cambiar antes de que el evento se despache
+        Evento evento = new Evento(tipo, producto.copia());
+        switch (politica) {
+            case BLOQUEAR -> encolarBloqueando(evento);
+            case DESCARTAR -> {
+                pendientes.incrementAndGet();
+                if (!cola.offer(evento)) {
+                    terminarUno();
+                    descartados.incrementAndGet();
+                }
+            }
+            case COALESCER -> {
+                String clave = tipo.name() + '|' + producto.getId();
+                if (coalescidos.put(clave, evento) == null) {
+                    encolarBloqueando(clave);
+                }
+            }
+        }
+    }
+
+    private void encolarBloqueando(Object elemento) {
+        pendientes.incrementAndGet();
+        try {
+            cola.put(elemento);
+        } catch (InterruptedException e) {
+            terminarUno();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void despachar() {
+        while (true) {
+            Object elemento;
+            try {
+                elemento = cola.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (elemento == FIN) {
+                return;
+            }
+            
+            Evento evento = elemento instanceof Evento
+                    ? (Evento) elemento
+                    : coalescidos.remove((String) elemento);
+            if (evento != null) {
+                entregar(evento);
+            }
+            terminarUno();
+        }
+    }
+
+    private void entregar(Evento evento) {
+        try {
+            switch (evento.tipo) {
+                case AGREGADO -> destino.onProductoAgregado(evento.producto);
+                case ACTUALIZADO -> destino.onProductoActualizado(evento.producto);
+                case ELIMINADO -> destino.onProductoEliminado(evento.producto);
+                case STOCK_BAJO -> destino.onStockBajo(evento.producto);
+                case STOCK_CRITICO -> destino.onStockCritico(evento.producto);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error al notificar " + evento.tipo + ": " + e.getMessage());
+        }
+    }
+
+    private void terminarUno() {
+        if (pendientes.decrementAndGet() == 0) {
+            synchronized (pendientes) {
+                pendientes.notifyAll();
+            }
+        }
+    }
+
+    // Espera a que se despachen todos los eventos aceptados hasta ahora
+    public boolean vaciar(long tiempo, TimeUnit unidad) throws InterruptedException {
+        long limite = System.nanoTime() + unidad.toNanos(tiempo);
+        synchronized (pendientes) {
+            while (pendientes.get() > 0) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(pendientes, restante);
+            }
+        }
+        return true;
+    }
+
+    // Deja de aceptar eventos (los posteriores se cuentan como descartados), despacha los pendientes y detiene el hilo
+    @Override
+    public void close() {
+        candadoCierre.writeLock().lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+        } finally {
+            candadoCierre.writeLock().unlock();
+        }
+        synchronized (ABIERTOS) {
+            ABIERTOS.remove(this);
+        }
+        
+        try {
+            cola.put(FIN);
+            despachador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cerrarDestino();
+    }
+
+    private void cerrarDestino() {
+        if (destino instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) destino).close();
+            } catch (Exception e) {
+                System.err.println("Error al cerrar observador: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventario.observer;
+
+public enum PoliticaDesbordamiento {
+    // Espera a que haya espacio en la cola (no pierde eventos)
+    BLOQUEAR,
+    // Descarta el evento nuevo si la cola está llena
+    DESCARTAR,
+    // Conserva solo el último evento pendiente de cada tipo por producto
+    COALESCER
+}
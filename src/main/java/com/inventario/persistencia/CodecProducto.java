@@ -0,0 +1,80 @@
+package com.inventario.persistencia;
+
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+final class CodecProducto {
+
+    private static final TipoTela[] TIPOS = TipoTela.values();
+
+    private CodecProducto() {
+    }
+
+    static int tamanoMaximo(Producto producto) {
+        return 8 + 1 + 8 + 4 + 4 + 8 + 8 + 1 + 1
+                + tamanoMaximo(producto.getCodigo())
+                + tamanoMaximo(producto.getNombre())
+                + tamanoMaximo(producto.getColor());
+    }
+
+    private static int tamanoMaximo(String texto) {
+        return 4 + (texto != null ? texto.length() * 3 : 0);
+    }
+
+    static void escribir(ByteBuffer destino, Producto producto) {
+        destino.putLong(producto.getId());
+        escribirTexto(destino, producto.getCodigo());
+        escribirTexto(destino, producto.getNombre());
+        destino.put((byte) producto.getTipoTela().ordinal());
+        escribirTexto(destino, producto.getColor());
+        destino.putDouble(producto.getPrecio());
+        destino.putInt(producto.getStockActual());
+        destino.putInt(producto.getStockMinimo());
+        destino.putLong(producto.getFechaCreacionMillis());
+        destino.putLong(producto.getFechaActualizacionMillis());
+        destino.put((byte) (producto.isActivo() ? 1 : 0));
+    }
+
+    static Producto leer(ByteBuffer origen) {
+        long id = origen.getLong();
+        String codigo = leerTexto(origen);
+        String nombre = leerTexto(origen);
+        TipoTela tipo = TIPOS[origen.get()];
+        String color = leerTexto(origen);
+        double precio = origen.getDouble();
+        int stockActual = origen.getInt();
+        int stockMinimo = origen.getInt();
+        long creacion = origen.getLong();
+        long actualizacion = origen.getLong();
+        boolean activo = origen.get() == 1;
+        
+        Producto producto = new Producto(codigo, nombre, tipo, color, precio, stockActual, stockMinimo);
+        producto.setId(id);
+        producto.setFechaCreacionMillis(creacion);
+        producto.setFechaActualizacionMillis(actualizacion);
+        producto.setActivo(activo);
+        return producto;
+    }
+
+    static void escribirTexto(ByteBuffer destino, String texto) {
+        if (texto == null) {
+            destino.putInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        destino.putInt(bytes.length);
+        destino.put(bytes);
+    }
+
+    static String leerTexto(ByteBuffer origen) {
+        int longitud = origen.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        origen.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
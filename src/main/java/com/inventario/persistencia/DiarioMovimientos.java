@@ -0,0 +1,205 @@
+package com.inventario.persistencia;
+
+import com.inventario.model.Producto;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/*
+ * Diario binario de solo anexado, en segmentos "diario-<primera secuencia>.bin".
+ * Cada registro: [int longitud][long secuencia][byte tipo][producto][int crc32c],
+ * donde longitud cubre secuencia+tipo+producto y el CRC se calcula sobre esos bytes.
+ */
+public class DiarioMovimientos implements AutoCloseable {
+
+    private static final String PREFIJO = "diario-";
+    private static final String EXTENSION = ".bin";
+
+    private final Path directorio;
+    private final boolean sincronizar;
+    private final CRC32C crc;
+    private ByteBuffer buffer;
+    private FileChannel canal;
+    private long ultimaSecuencia;
+
+    // secuenciaMinima: última secuencia ya cubierta por una instantánea
+    public DiarioMovimientos(Path directorio, long secuenciaMinima, boolean sincronizar) throws IOException {
+        this.directorio = directorio;
+        this.sincronizar = sincronizar;
+        this.crc = new CRC32C();
+        this.buffer = ByteBuffer.allocateDirect(64 * 1024);
+        Files.createDirectories(directorio);
+        abrir(secuenciaMinima);
+    }
+
+    private void abrir(long secuenciaMinima) throws IOException {
+        List<Path> segmentos = segmentos(directorio);
+        ultimaSecuencia = secuenciaMinima;
+
+        if (!segmentos.isEmpty()) {
+            Path ultimo = segmentos.get(segmentos.size() - 1);
+            long[] fin = new long[] {primeraSecuencia(ultimo) - 1};
+            long longitudValida = recorrerSegmento(ultimo, fin[0], r -> fin[0] = r.getSecuencia());
+            if (fin[0] >= secuenciaMinima) {
+                // Continúa el último segmento descartando una cola incompleta
+                canal = FileChannel.open(ultimo, StandardOpenOption.WRITE);
+                canal.truncate(longitudValida);
+                canal.position(longitudValida);
+                ultimaSecuencia = fin[0];
+                return;
+            }
+        }
+        canal = abrirSegmento(ultimaSecuencia + 1);
+    }
+
+    private FileChannel abrirSegmento(long primeraSecuencia) throws IOException {
+        Path ruta = directorio.resolve(String.format("%s%020d%s", PREFIJO, primeraSecuencia, EXTENSION));
+        return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.APPEND);
+    }
+
+    public synchronized long registrar(TipoRegistro tipo, Producto producto) {
+        int maximo = 4 + 8 + 1 + CodecProducto.tamanoMaximo(producto) + 4;
+        if (buffer.capacity() < maximo) {
+            buffer = ByteBuffer.allocateDirect(Math.max(maximo, buffer.capacity() * 2));
+        }
+
+        long secuencia = ultimaSecuencia + 1;
+        buffer.clear();
+        buffer.position(4);
+        buffer.putLong(secuencia);
+        buffer.put(tipo.getCodigo());
+        CodecProducto.escribir(buffer, producto);
+        int longitud = buffer.position() - 4;
+        buffer.putInt(0, longitud);
+
+        crc.reset();
+        ByteBuffer cuerpo = buffer.duplicate();
+        cuerpo.position(4).limit(4 + longitud);
+        crc.update(cuerpo);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            if (sincronizar) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el diario", e);
+        }
+        ultimaSecuencia = secuencia;
+        return secuencia;
+    }
+
+    public synchronized long getUltimaSecuencia() {
+        return ultimaSecuencia;
+    }
+
+    // Cierra el segmento actual y empieza otro; devuelve la última secuencia del cerrado
+    public synchronized long rotar() throws IOException {
+        canal.force(false);
+        canal.close();
+        canal = abrirSegmento(ultimaSecuencia + 1);
+        return ultimaSecuencia;
+    }
+
+    // Borra los segmentos cuyos registros están todos cubiertos por una instantánea
+    public synchronized void eliminarSegmentosHasta(long secuencia) throws IOException {
+        List<Path> segmentos = segmentos(directorio);
+        for (int i = 0; i + 1 < segmentos.size(); i++) {
+            if (primeraSecuencia(segmentos.get(i + 1)) - 1 <= secuencia) {
+                Files.delete(segmentos.get(i));
+            }
+        }
+    }
+
+    // Reproduce en orden los registros posteriores a 'despuesDe'; devuelve la última secuencia leída
+    public static long leerDesde(Path directorio, long despuesDe, Consumer<RegistroDiario> consumidor)
+            throws IOException {
+        long[] ultima = new long[] {despuesDe};
+        if (!Files.isDirectory(directorio)) {
+            return despuesDe;
+        }
+
+        for (Path segmento : segmentos(directorio)) {
+            recorrerSegmento(segmento, primeraSecuencia(segmento) - 1, registro -> {
+                if (registro.getSecuencia() > ultima[0]) {
+                    ultima[0] = registro.getSecuencia();
+                    consumidor.accept(registro);
+                }
+            });
+        }
+        return ultima[0];
+    }
+
+    // Lee un segmento mapeado en memoria; se detiene en el primer registro truncado,
+    // corrupto o fuera de secuencia y devuelve la longitud válida
+    private static long recorrerSegmento(Path segmento, long secuenciaPrevia,
+                                         Consumer<RegistroDiario> consumidor) throws IOException {
+        try (FileChannel lectura = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            MappedByteBuffer datos = lectura.map(FileChannel.MapMode.READ_ONLY, 0, lectura.size());
+            CRC32C crc = new CRC32C();
+            long esperada = secuenciaPrevia + 1;
+
+            while (datos.remaining() >= 4) {
+                int inicio = datos.position();
+                int longitud = datos.getInt();
+                if (longitud < 9 || datos.remaining() < longitud + 4) {
+                    return inicio;
+                }
+
+                ByteBuffer cuerpo = datos.slice(inicio + 4, longitud);
+                crc.reset();
+                crc.update(cuerpo.duplicate());
+                datos.position(inicio + 4 + longitud);
+                if ((int) crc.getValue() != datos.getInt()) {
+                    return inicio;
+                }
+
+                long secuencia = cuerpo.getLong();
+                if (secuencia != esperada) {
+                    return inicio;
+                }
+                TipoRegistro tipo = TipoRegistro.desdeCodigo(cuerpo.get());
+                consumidor.accept(new RegistroDiario(secuencia, tipo, CodecProducto.leer(cuerpo)));
+                esperada++;
+            }
+            return datos.position();
+        }
+    }
+
+    private static List<Path> segmentos(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            List<Path> segmentos = new ArrayList<>();
+            archivos.filter(p -> {
+                String nombre = p.getFileName().toString();
+                return nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION);
+            }).sorted().forEach(segmentos::add);
+            return segmentos;
+        }
+    }
+
+    private static long primeraSecuencia(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.force(false);
+        canal.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventario.persistencia;
+
+import com.inventario.repository.IProductoRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Agrupa instantánea + diario de un directorio de datos
+public class GestorPersistencia implements AutoCloseable {
+
+    private final Path archivoInstantanea;
+    private final Path directorioDiario;
+    private final DiarioMovimientos diario;
+    private final ExecutorService escritorInstantaneas;
+
+    private GestorPersistencia(Path directorio, DiarioMovimientos diario) {
+        this.archivoInstantanea = directorio.resolve("inventario.snap");
+        this.directorioDiario = directorio.resolve("diario");
+        this.diario = diario;
+        this.escritorInstantaneas = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "instantanea-" + directorio.getFileName());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    // Reconstruye el repositorio (instantánea + cola del diario) y deja el diario listo para anexar
+    public static GestorPersistencia abrir(Path directorio, IProductoRepository repository,
+                                           boolean sincronizarCadaRegistro) throws IOException {
+        Files.createDirectories(directorio);
+        long secuencia = RecuperacionInventario.recuperar(repository,
+                directorio.resolve("inventario.snap"), directorio.resolve("diario"));
+        DiarioMovimientos diario = new DiarioMovimientos(directorio.resolve("diario"), secuencia,
+                                                         sincronizarCadaRegistro);
+        return new GestorPersistencia(directorio, diario);
+    }
+
+    public DiarioMovimientos getDiario() {
+        return diario;
+    }
+
+    // Las escrituras pueden continuar: lo posterior a la rotación se reaplica desde el diario.
+    // Incluye los inactivos: el diario que cubre se borra y sin ellos se perderían sus ids
+    public synchronized long tomarInstantanea(IProductoRepository repository) throws IOException {
+        long secuencia = diario.rotar();
+        Instantanea.escribir(archivoInstantanea, secuencia, repository.obtenerTodosConInactivos());
+        diario.eliminarSegmentosHasta(secuencia);
+        return secuencia;
+    }
+
+    // Igual que tomarInstantanea pero en un hilo propio; las instantáneas pedidas se escriben de una en una
+    public CompletableFuture<Long> tomarInstantaneaEnSegundoPlano(IProductoRepository repository) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return tomarInstantanea(repository);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo escribir la instantánea", e);
+            }
+        }, escritorInstantaneas);
+    }
+
+    public Path getDirectorioDiario() {
+        return directorioDiario;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Una instantánea en curso termina antes de cerrar el diario
+        escritorInstantaneas.shutdown();
+        try {
+            escritorInstantaneas.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        diario.close();
+    }
+}
@@ -0,0 +1,352 @@
+package com.inventario.persistencia;
+
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/*
+ * Foto completa del catálogo con la secuencia del diario que cubre.
+ *
+ * Versión 2 (compacta):
+ *   cabecera (64 bytes): mágico, versión, secuencia, total, desplazamientos de cada sección,
+ *                        longitud total y CRC32C de todo lo que sigue a la cabecera
+ *   registros de ancho fijo (50 bytes): id, precio, creación y actualización (epoch ms),
+ *                        stock, stock mínimo, índice de nombre, índice de color, índice de tipo, activo
+ *   tabla de códigos (uno por registro, mismo orden)
+ *   diccionarios de tipos, colores y nombres
+ */
+public final class Instantanea {
+
+    private static final int MAGICO_V1 = 0x494E5631; // "INV1": un producto serializado tras otro
+    private static final int MAGICO = 0x494E5653;    // "INVS"
+    private static final short VERSION = 2;
+    private static final int TAMANO_CABECERA = 64;
+    private static final int TAMANO_REGISTRO = 50;
+    private static final int SIN_VALOR = -1;
+    // Tamaño máximo de cada mapeo al leer y al calcular el CRC
+    private static final long VENTANA = 64L * 1024 * 1024;
+
+    private Instantanea() {
+    }
+
+    // Se escribe en un temporal y se renombra: nunca queda una instantánea a medias
+    public static void escribir(Path archivo, long secuencia, Collection<Producto> productos) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        Diccionario tipos = new Diccionario();
+        Diccionario colores = new Diccionario();
+        Diccionario nombres = new Diccionario();
+        for (TipoTela tipo : TipoTela.values()) {
+            tipos.indice(tipo.name());
+        }
+
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offsetCodigos = TAMANO_CABECERA + (long) productos.size() * TAMANO_REGISTRO;
+            SalidaPosicional registros = new SalidaPosicional(canal, TAMANO_CABECERA);
+            SalidaPosicional codigos = new SalidaPosicional(canal, offsetCodigos);
+
+            int total = 0;
+            codigos.buffer(4).putInt(productos.size());
+            for (Producto producto : productos) {
+                registros.buffer(TAMANO_REGISTRO)
+                        .putLong(producto.getId())
+                        .putDouble(producto.getPrecio())
+                        .putLong(producto.getFechaCreacionMillis())
+                        .putLong(producto.getFechaActualizacionMillis())
+                        .putInt(producto.getStockActual())
+                        .putInt(producto.getStockMinimo())
+                        .putInt(nombres.indice(producto.getNombre()))
+                        .putInt(colores.indice(producto.getColor()))
+                        .put((byte) tipos.indice(producto.getTipoTela().name()))
+                        .put((byte) (producto.isActivo() ? 1 : 0));
+                escribirTexto(codigos, producto.getCodigo());
+                total++;
+            }
+            registros.vaciar();
+
+            long offsetTipos = codigos.posicion();
+            tipos.escribir(codigos);
+            long offsetColores = codigos.posicion();
+            colores.escribir(codigos);
+            long offsetNombres = codigos.posicion();
+            nombres.escribir(codigos);
+            long longitud = codigos.posicion();
+            codigos.vaciar();
+
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGICO).putShort(VERSION).putShort((short) 0)
+                    .putLong(secuencia).putInt(total)
+                    .putLong(offsetCodigos).putLong(offsetTipos).putLong(offsetColores)
+                    .putLong(offsetNombres).putLong(longitud)
+                    .putInt(calcularCrc(canal, longitud));
+            cabecera.clear();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int calcularCrc(FileChannel canal, long longitud) throws IOException {
+        return crc(canal, TAMANO_CABECERA, longitud);
+    }
+
+    // Por ventanas: un solo map no puede pasar de 2 GB
+    private static int crc(FileChannel canal, long desde, long hasta) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long posicion = desde; posicion < hasta; posicion += VENTANA) {
+            crc.update(canal.map(FileChannel.MapMode.READ_ONLY, posicion, Math.min(VENTANA, hasta - posicion)));
+        }
+        return (int) crc.getValue();
+    }
+
+    // Entrega cada producto y devuelve la secuencia cubierta (0 si no hay instantánea)
+    public static long leer(Path archivo, Consumer<Producto> consumidor) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanoArchivo = canal.size();
+            ByteBuffer cabecera = ByteBuffer.allocate((int) Math.min(TAMANO_CABECERA, tamanoArchivo));
+            while (cabecera.hasRemaining()) {
+                if (canal.read(cabecera, cabecera.position()) < 0) {
+                    break;
+                }
+            }
+            cabecera.flip();
+            if (cabecera.remaining() < 4) {
+                throw new IOException("Formato de instantánea no reconocido: " + archivo);
+            }
+            int magico = cabecera.getInt();
+            if (magico == MAGICO_V1) {
+                if (tamanoArchivo > Integer.MAX_VALUE) {
+                    throw new IOException("Instantánea v1 de más de 2 GB: " + archivo);
+                }
+                ByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanoArchivo);
+                datos.getInt();
+                return leerV1(datos, consumidor);
+            }
+            if (magico != MAGICO || cabecera.remaining() < TAMANO_CABECERA - 4) {
+                throw new IOException("Formato de instantánea no reconocido: " + archivo);
+            }
+            short version = cabecera.getShort();
+            if (version != VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            cabecera.getShort();
+
+            long secuencia = cabecera.getLong();
+            int total = cabecera.getInt();
+            long offsetCodigos = cabecera.getLong();
+            long offsetTipos = cabecera.getLong();
+            long offsetColores = cabecera.getLong();
+            long offsetNombres = cabecera.getLong();
+            long longitud = cabecera.getLong();
+            int crcEsperado = cabecera.getInt();
+
+            // Cada sección empieza donde acaba la anterior y todas caben en el archivo
+            if (total < 0 || offsetCodigos != TAMANO_CABECERA + (long) total * TAMANO_REGISTRO
+                    || offsetTipos < offsetCodigos || offsetColores < offsetTipos
+                    || offsetNombres < offsetColores || longitud < offsetNombres || longitud > tamanoArchivo) {
+                throw new IOException("Instantánea con desplazamientos fuera de rango (" + total + " registros, "
+                        + "longitud " + longitud + " de " + tamanoArchivo + " bytes): " + archivo);
+            }
+            if (crc(canal, TAMANO_CABECERA, longitud) != crcEsperado) {
+                throw new IOException("Instantánea corrupta (CRC): " + archivo);
+            }
+
+            TipoTela[] tipos = leerTipos(new LectorVentanas(canal, offsetTipos, offsetColores));
+            String[] colores = leerTabla(new LectorVentanas(canal, offsetColores, offsetNombres));
+            String[] nombres = leerTabla(new LectorVentanas(canal, offsetNombres, longitud));
+
+            LectorVentanas registros = new LectorVentanas(canal, TAMANO_CABECERA, offsetCodigos);
+            LectorVentanas codigos = new LectorVentanas(canal, offsetCodigos, offsetTipos);
+            codigos.asegurar(4).getInt();
+            for (int i = 0; i < total; i++) {
+                ByteBuffer registro = registros.asegurar(TAMANO_REGISTRO);
+                long id = registro.getLong();
+                double precio = registro.getDouble();
+                long creacion = registro.getLong();
+                long actualizacion = registro.getLong();
+                int stockActual = registro.getInt();
+                int stockMinimo = registro.getInt();
+                int nombre = registro.getInt();
+                int color = registro.getInt();
+                TipoTela tipo = entrada(tipos, registro.get());
+                boolean activo = registro.get() == 1;
+
+                Producto producto = new Producto(leerTexto(codigos), entrada(nombres, nombre),
+                        tipo, entrada(colores, color), precio, stockActual, stockMinimo);
+                producto.setId(id);
+                producto.setFechaCreacionMillis(creacion);
+                producto.setFechaActualizacionMillis(actualizacion);
+                producto.setActivo(activo);
+                consumidor.accept(producto);
+            }
+            return secuencia;
+        }
+    }
+
+    private static <T> T entrada(T[] tabla, int indice) throws IOException {
+        if (indice == SIN_VALOR) {
+            return null;
+        }
+        if (indice < 0 || indice >= tabla.length) {
+            throw new IOException("Índice de diccionario fuera de rango en la instantánea: " + indice);
+        }
+        return tabla[indice];
+    }
+
+    private static long leerV1(ByteBuffer datos, Consumer<Producto> consumidor) {
+        long secuencia = datos.getLong();
+        int total = datos.getInt();
+        for (int i = 0; i < total; i++) {
+            consumidor.accept(CodecProducto.leer(datos));
+        }
+        return secuencia;
+    }
+
+    private static TipoTela[] leerTipos(LectorVentanas datos) throws IOException {
+        String[] nombres = leerTabla(datos);
+        TipoTela[] tipos = new TipoTela[nombres.length];
+        for (int i = 0; i < nombres.length; i++) {
+            tipos[i] = TipoTela.valueOf(nombres[i]);
+        }
+        return tipos;
+    }
+
+    private static String[] leerTabla(LectorVentanas datos) throws IOException {
+        int tamano = datos.asegurar(4).getInt();
+        if (tamano < 0) {
+            throw new IOException("Diccionario de la instantánea con tamaño negativo: " + tamano);
+        }
+        String[] tabla = new String[tamano];
+        for (int i = 0; i < tabla.length; i++) {
+            tabla[i] = leerTexto(datos);
+        }
+        return tabla;
+    }
+
+    private static String leerTexto(LectorVentanas datos) throws IOException {
+        int longitud = datos.asegurar(2).getShort() & 0xFFFF;
+        if (longitud == 0xFFFF) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        datos.asegurar(longitud).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escribirTexto(SalidaPosicional salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.buffer(2).putShort((short) 0xFFFF);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= 0xFFFF) {
+            throw new IllegalArgumentException("Texto demasiado largo para la instantánea: " + texto.length());
+        }
+        salida.buffer(2 + bytes.length).putShort((short) bytes.length).put(bytes);
+    }
+
+    // Textos repetidos (colores, nombres, tipos) se guardan una vez y se referencian por índice
+    private static final class Diccionario {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> valores = new ArrayList<>();
+
+        int indice(String valor) {
+            if (valor == null) {
+                return SIN_VALOR;
+            }
+            Integer indice = indices.get(valor);
+            if (indice == null) {
+                indice = valores.size();
+                indices.put(valor, indice);
+                valores.add(valor);
+            }
+            return indice;
+        }
+
+        void escribir(SalidaPosicional salida) throws IOException {
+            salida.buffer(4).putInt(valores.size());
+            for (String valor : valores) {
+                escribirTexto(salida, valor);
+            }
+        }
+    }
+
+    // Lectura secuencial de una sección del archivo mapeando ventanas de a lo sumo VENTANA bytes
+    private static final class LectorVentanas {
+        private final FileChannel canal;
+        private final long fin;
+        private long inicioVentana;
+        private ByteBuffer ventana = ByteBuffer.allocate(0);
+
+        LectorVentanas(FileChannel canal, long inicio, long fin) {
+            this.canal = canal;
+            this.fin = fin;
+            this.inicioVentana = inicio;
+        }
+
+        // La ventana devuelta tiene al menos 'necesarios' bytes por leer
+        ByteBuffer asegurar(int necesarios) throws IOException {
+            if (ventana.remaining() < necesarios) {
+                long posicion = inicioVentana + ventana.position();
+                long tamano = Math.min(VENTANA, fin - posicion);
+                if (tamano < necesarios) {
+                    throw new IOException("Instantánea truncada: faltan datos en la posición " + posicion);
+                }
+                ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, tamano);
+                inicioVentana = posicion;
+            }
+            return ventana;
+        }
+    }
+
+    // Buffer de escritura que vuelca en una posición propia del canal
+    private static final class SalidaPosicional {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        private long posicion;
+
+        SalidaPosicional(FileChannel canal, long posicion) {
+            this.canal = canal;
+            this.posicion = posicion;
+        }
+
+        ByteBuffer buffer(int necesarios) throws IOException {
+            if (buffer.remaining() < necesarios) {
+                vaciar();
+            }
+            return buffer;
+        }
+
+        long posicion() {
+            return posicion + buffer.position();
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                posicion += canal.write(buffer, posicion);
+            }
+            buffer.clear();
+        }
+    }
+}
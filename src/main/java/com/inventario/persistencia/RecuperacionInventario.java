@@ -0,0 +1,36 @@
+package com.inventario.persistencia;
+
+import com.inventario.model.Producto;
+import com.inventario.repository.IProductoRepository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RecuperacionInventario {
+
+    private RecuperacionInventario() {
+    }
+
+    // Carga la última instantánea y reaplica la cola del diario; devuelve la última secuencia aplicada
+    public static long recuperar(IProductoRepository repository, Path instantanea, Path directorioDiario)
+            throws IOException {
+        List<Producto> recuperados = new ArrayList<>();
+        long secuenciaInstantanea = Instantanea.leer(instantanea, recuperados::add);
+        repository.cargarRecuperados(recuperados);
+        
+        long ultimaSecuencia = DiarioMovimientos.leerDesde(directorioDiario, secuenciaInstantanea, registro -> {
+            Producto producto = registro.getProducto();
+            boolean existe = repository.buscarPorId(producto.getId()).isPresent();
+            
+            if (!existe) {
+                repository.guardar(producto);
+            } else if (registro.getTipo() != TipoRegistro.CREACION) {
+                // Una creación nunca pisa un estado posterior ya cargado
+                repository.actualizar(producto);
+            }
+        });
+        repository.finalizarRecuperacion();
+        return ultimaSecuencia;
+    }
+}
@@ -0,0 +1,29 @@
+package com.inventario.persistencia;
+
+import com.inventario.model.Producto;
+
+public class RegistroDiario {
+
+    private final long secuencia;
+    private final TipoRegistro tipo;
+    // Estado completo del producto tras la operación: reaplicarlo es idempotente
+    private final Producto producto;
+
+    public RegistroDiario(long secuencia, TipoRegistro tipo, Producto producto) {
+        this.secuencia = secuencia;
+        this.tipo = tipo;
+        this.producto = producto;
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public TipoRegistro getTipo() {
+        return tipo;
+    }
+
+    public Producto getProducto() {
+        return producto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventario.persistencia;
+
+public enum TipoRegistro {
+    CREACION((byte) 1),
+    ACTUALIZACION((byte) 2),
+    MOVIMIENTO_STOCK((byte) 3),
+    ELIMINACION((byte) 4);
+
+    private final byte codigo;
+
+    TipoRegistro(byte codigo) {
+        this.codigo = codigo;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    public static TipoRegistro desdeCodigo(byte codigo) {
+        for (TipoRegistro tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de registro no válido: " + codigo);
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventario.reporte;
+
+import com.inventario.model.Producto;
+import com.inventario.service.ResumenInventario;
+
+// Cada método agrega su parte al bloque en curso; GeneradorReporte decide cuándo volcarlo
+public interface FormatoReporte {
+
+    void encabezado(StringBuilder salida, ResumenInventario resumen);
+
+    void productoStockBajo(StringBuilder salida, Producto producto, boolean primero);
+
+    void cierre(StringBuilder salida, ResumenInventario resumen);
+}
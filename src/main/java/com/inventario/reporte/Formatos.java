@@ -0,0 +1,74 @@
+package com.inventario.reporte;
+
+// Formateo a mano sobre un StringBuilder, sin String.format ni objetos intermedios
+public final class Formatos {
+
+    private Formatos() {
+    }
+
+    // Equivalente a "%.2f" (con punto decimal, sin depender del Locale)
+    public static StringBuilder agregarDecimal(StringBuilder sb, double valor) {
+        long centimos = Math.round(Math.abs(valor) * 100);
+        if (valor < 0 && centimos != 0) {
+            sb.append('-');
+        }
+        sb.append(centimos / 100).append('.');
+        long decimales = centimos % 100;
+        if (decimales < 10) {
+            sb.append('0');
+        }
+        return sb.append(decimales);
+    }
+
+    // Campo CSV: entre comillas solo si contiene separador, comillas o saltos de línea
+    public static StringBuilder agregarCsv(StringBuilder sb, String texto) {
+        if (texto == null) {
+            return sb;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < texto.length() && !comillas; i++) {
+            char c = texto.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            return sb.append(texto);
+        }
+
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    // Cadena JSON entre comillas, o null
+    public static StringBuilder agregarJson(StringBuilder sb, String texto) {
+        if (texto == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00");
+                        sb.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,45 @@
+package com.inventario.reporte;
+
+import com.inventario.model.Producto;
+import com.inventario.service.ResumenInventario;
+import java.io.Flushable;
+import java.io.IOException;
+
+/*
+ * Escribe el reporte por bloques: lo formateado se acumula en un StringBuilder y se pasa
+ * al destino cada vez que supera TAMANO_BLOQUE, así nunca existe el reporte completo en memoria.
+ */
+public class GeneradorReporte {
+
+    private static final int TAMANO_BLOQUE = 8 * 1024;
+
+    private final FormatoReporte formato;
+
+    public GeneradorReporte(FormatoReporte formato) {
+        this.formato = formato;
+    }
+
+    public void escribir(ResumenInventario resumen, Appendable destino) throws IOException {
+        StringBuilder bloque = new StringBuilder(TAMANO_BLOQUE + 256);
+
+        formato.encabezado(bloque, resumen);
+        boolean primero = true;
+        for (Producto producto : resumen.getProductosConStockBajo()) {
+            formato.productoStockBajo(bloque, producto, primero);
+            primero = false;
+            if (bloque.length() >= TAMANO_BLOQUE) {
+                volcar(bloque, destino);
+            }
+        }
+        formato.cierre(bloque, resumen);
+        volcar(bloque, destino);
+    }
+
+    private static void volcar(StringBuilder bloque, Appendable destino) throws IOException {
+        destino.append(bloque);
+        bloque.setLength(0);
+        if (destino instanceof Flushable) {
+            ((Flushable) destino).flush();
+        }
+    }
+}
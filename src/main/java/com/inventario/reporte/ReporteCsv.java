@@ -0,0 +1,25 @@
+package com.inventario.reporte;
+
+import com.inventario.model.Producto;
+import com.inventario.service.ResumenInventario;
+
+// Tabla de productos con stock bajo; los totales se derivan de ella o del resumen
+public class ReporteCsv implements FormatoReporte {
+
+    @Override
+    public void encabezado(StringBuilder salida, ResumenInventario resumen) {
+        salida.append("codigo,nombre,stock_actual,stock_minimo\n");
+    }
+
+    @Override
+    public void productoStockBajo(StringBuilder salida, Producto producto, boolean primero) {
+        Formatos.agregarCsv(salida, producto.getCodigo()).append(',');
+        Formatos.agregarCsv(salida, producto.getNombre()).append(',')
+              .append(producto.getStockActual()).append(',')
+              .append(producto.getStockMinimo()).append('\n');
+    }
+
+    @Override
+    public void cierre(StringBuilder salida, ResumenInventario resumen) {
+    }
+}
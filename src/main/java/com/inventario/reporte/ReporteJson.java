@@ -0,0 +1,36 @@
+package com.inventario.reporte;
+
+import com.inventario.model.Producto;
+import com.inventario.service.ResumenInventario;
+
+public class ReporteJson implements FormatoReporte {
+
+    @Override
+    public void encabezado(StringBuilder salida, ResumenInventario resumen) {
+        salida.append("{\"totalProductos\":").append(resumen.getTotalProductos())
+              .append(",\"productosStockBajo\":").append(resumen.getProductosStockBajo())
+              .append(",\"productosCriticos\":").append(resumen.getProductosCriticos())
+              .append(",\"valorTotalInventario\":");
+        Formatos.agregarDecimal(salida, resumen.getValorTotalInventario())
+              .append(",\"porcentajeStockBajo\":");
+        Formatos.agregarDecimal(salida, resumen.getPorcentajeStockBajo())
+              .append(",\"productosConStockBajo\":[");
+    }
+
+    @Override
+    public void productoStockBajo(StringBuilder salida, Producto producto, boolean primero) {
+        if (!primero) {
+            salida.append(',');
+        }
+        salida.append("{\"codigo\":");
+        Formatos.agregarJson(salida, producto.getCodigo()).append(",\"nombre\":");
+        Formatos.agregarJson(salida, producto.getNombre())
+              .append(",\"stockActual\":").append(producto.getStockActual())
+              .append(",\"stockMinimo\":").append(producto.getStockMinimo()).append('}');
+    }
+
+    @Override
+    public void cierre(StringBuilder salida, ResumenInventario resumen) {
+        salida.append("]}\n");
+    }
+}
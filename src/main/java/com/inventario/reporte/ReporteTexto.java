@@ -0,0 +1,38 @@
+package com.inventario.reporte;
+
+import com.inventario.model.Producto;
+import com.inventario.service.ResumenInventario;
+
+public class ReporteTexto implements FormatoReporte {
+
+    private static final String SEPARADOR = " _______________________________________________________________ \n";
+
+    @Override
+    public void encabezado(StringBuilder salida, ResumenInventario resumen) {
+        salida.append(SEPARADOR)
+              .append("           REPORTE DE INVENTARIO TEXTIL           \n")
+              .append(SEPARADOR).append('\n');
+
+        salida.append("Total de productos: ").append(resumen.getTotalProductos()).append('\n');
+        salida.append("Productos con stock bajo: ").append(resumen.getProductosStockBajo()).append('\n');
+        salida.append("Valor total del inventario: S/ ");
+        Formatos.agregarDecimal(salida, resumen.getValorTotalInventario()).append('\n');
+        salida.append("Porcentaje stock bajo: ");
+        Formatos.agregarDecimal(salida, resumen.getPorcentajeStockBajo()).append("%\n\n");
+    }
+
+    @Override
+    public void productoStockBajo(StringBuilder salida, Producto producto, boolean primero) {
+        if (primero) {
+            salida.append("PRODUCTOS CON STOCK BAJO:\n").append(SEPARADOR);
+        }
+        salida.append("  ").append(producto.getCodigo()).append(" - ").append(producto.getNombre())
+              .append(" (Stock: ").append(producto.getStockActual())
+              .append('/').append(producto.getStockMinimo()).append(")\n");
+    }
+
+    @Override
+    public void cierre(StringBuilder salida, ResumenInventario resumen) {
+        salida.append('\n').append(SEPARADOR);
+    }
+}
@@ -0,0 +1,205 @@
+package com.inventario.repository;
+
+import com.inventario.estadisticas.EstadisticasTipo;
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * Copia por columnas (arreglos primitivos) de los campos numéricos de cada producto activo,
+ * indexada por un slot denso. Los recorridos analíticos leen arreglos contiguos en vez de seguir
+ * un puntero por producto, y sus bucles no tienen saltos ni índices calculados: la condición
+ * se aplica como máscara (sumando 0) para que el JIT pueda vectorizarlos.
+ *
+ * Los arreglos se reparten en páginas de tamaño fijo que se crean al usarse: crecer solo copia
+ * el directorio de páginas, así una escritura concurrente nunca cae en un arreglo ya descartado.
+ * Los slots de los productos desactivados se reutilizan.
+ * Cada slot se escribe con el candado de su producto; los recorridos no bloquean y pueden ver
+ * un producto a medio actualizar.
+ */
+final class ColumnasNumericas {
+
+    private static final int BITS_PAGINA = 14;
+    private static final int TAMANO_PAGINA = 1 << BITS_PAGINA;
+    private static final int MASCARA = TAMANO_PAGINA - 1;
+    private static final byte INACTIVO = -1;
+    // Activo pero sin tipo de tela: cuenta en los totales, no en las estadísticas por tipo
+    private static final byte SIN_TIPO = -2;
+    private static final TipoTela[] TIPOS = TipoTela.values();
+
+    private static final class Pagina {
+        private final double[] precio = new double[TAMANO_PAGINA];
+        private final int[] stock = new int[TAMANO_PAGINA];
+        private final int[] stockMinimo = new int[TAMANO_PAGINA];
+        // Ordinal del tipo de tela, SIN_TIPO o INACTIVO
+        private final byte[] tipo = new byte[TAMANO_PAGINA];
+
+        private Pagina() {
+            Arrays.fill(tipo, INACTIVO);
+        }
+    }
+
+    private volatile Pagina[] paginas = new Pagina[0];
+    // Primer slot nunca usado: los recorridos llegan hasta aquí
+    private volatile int limite;
+    // Pila de slots liberados
+    private int[] libres = new int[64];
+    private int cantidadLibres;
+
+    synchronized int reservarSlot() {
+        if (cantidadLibres > 0) {
+            return libres[--cantidadLibres];
+        }
+        int slot = limite;
+        int indicePagina = slot >>> BITS_PAGINA;
+        Pagina[] actuales = paginas;
+        if (indicePagina >= actuales.length || actuales[indicePagina] == null) {
+            // Siempre sobre una copia: quien ya leyó el directorio nunca ve una página a medio crear
+            Pagina[] nuevas = Arrays.copyOf(actuales, Math.max(indicePagina + 1, actuales.length));
+            nuevas[indicePagina] = new Pagina();
+            paginas = nuevas;
+        }
+        // Después de publicar la página: quien lee 'limite' y luego 'paginas' ya la encuentra
+        limite = slot + 1;
+        return slot;
+    }
+
+    void escribir(int slot, Producto producto) {
+        Pagina pagina = paginas[slot >>> BITS_PAGINA];
+        int i = slot & MASCARA;
+        pagina.precio[i] = producto.getPrecio();
+        pagina.stock[i] = producto.getStockActual();
+        pagina.stockMinimo[i] = producto.getStockMinimo();
+        TipoTela tipo = producto.getTipoTela();
+        pagina.tipo[i] = tipo != null ? (byte) tipo.ordinal() : SIN_TIPO;
+    }
+
+    // El slot queda libre para otro producto
+    synchronized void desactivar(int slot) {
+        paginas[slot >>> BITS_PAGINA].tipo[slot & MASCARA] = INACTIVO;
+        if (cantidadLibres == libres.length) {
+            libres = Arrays.copyOf(libres, libres.length * 2);
+        }
+        libres[cantidadLibres++] = slot;
+    }
+
+    double valorTotal() {
+        double total = 0;
+        int ocupados = limite;
+        Pagina[] actuales = paginas;
+        for (int p = 0; p * TAMANO_PAGINA < ocupados; p++) {
+            Pagina pagina = actuales[p];
+            double[] precios = pagina.precio;
+            int[] stocks = pagina.stock;
+            byte[] tipos = pagina.tipo;
+            int fin = Math.min(TAMANO_PAGINA, ocupados - p * TAMANO_PAGINA);
+            for (int i = 0; i < fin; i++) {
+                double valor = precios[i] * stocks[i];
+                total += tipos[i] != INACTIVO ? valor : 0.0;
+            }
+        }
+        return total;
+    }
+
+    // stockActual <= stockMinimo, igual que Producto.tieneStockBajo
+    long contarStockBajo() {
+        long cantidad = 0;
+        int ocupados = limite;
+        Pagina[] actuales = paginas;
+        for (int p = 0; p * TAMANO_PAGINA < ocupados; p++) {
+            Pagina pagina = actuales[p];
+            int[] stocks = pagina.stock;
+            int[] minimos = pagina.stockMinimo;
+            byte[] tipos = pagina.tipo;
+            int fin = Math.min(TAMANO_PAGINA, ocupados - p * TAMANO_PAGINA);
+            for (int i = 0; i < fin; i++) {
+                cantidad += (tipos[i] != INACTIVO & stocks[i] <= minimos[i]) ? 1 : 0;
+            }
+        }
+        return cantidad;
+    }
+
+    long contarCriticos() {
+        long cantidad = 0;
+        int ocupados = limite;
+        Pagina[] actuales = paginas;
+        for (int p = 0; p * TAMANO_PAGINA < ocupados; p++) {
+            Pagina pagina = actuales[p];
+            int[] stocks = pagina.stock;
+            byte[] tipos = pagina.tipo;
+            int fin = Math.min(TAMANO_PAGINA, ocupados - p * TAMANO_PAGINA);
+            for (int i = 0; i < fin; i++) {
+                cantidad += (tipos[i] != INACTIVO & stocks[i] == 0) ? 1 : 0;
+            }
+        }
+        return cantidad;
+    }
+
+    // Una pasada por tipo sobre cada página (que sigue en caché): acumuladores escalares,
+    // sin indexar arreglos por ordinal dentro del bucle
+    Map<TipoTela, EstadisticasTipo> estadisticasPorTipo() {
+        long[] cantidad = new long[TIPOS.length];
+        long[] stockTotal = new long[TIPOS.length];
+        double[] valor = new double[TIPOS.length];
+        double[] sumaPrecios = new double[TIPOS.length];
+        double[] precioMinimo = new double[TIPOS.length];
+        double[] precioMaximo = new double[TIPOS.length];
+        Arrays.fill(precioMinimo, Double.POSITIVE_INFINITY);
+        Arrays.fill(precioMaximo, Double.NEGATIVE_INFINITY);
+
+        int ocupados = limite;
+        Pagina[] actuales = paginas;
+        for (int p = 0; p * TAMANO_PAGINA < ocupados; p++) {
+            Pagina pagina = actuales[p];
+            double[] precios = pagina.precio;
+            int[] stocks = pagina.stock;
+            byte[] tipos = pagina.tipo;
+            int fin = Math.min(TAMANO_PAGINA, ocupados - p * TAMANO_PAGINA);
+            for (int t = 0; t < TIPOS.length; t++) {
+                byte tipo = (byte) t;
+                long n = 0;
+                long stock = 0;
+                double v = 0;
+                double suma = 0;
+                double minimo = Double.POSITIVE_INFINITY;
+                double maximo = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < fin; i++) {
+                    boolean es = tipos[i] == tipo;
+                    double precio = precios[i];
+                    int s = stocks[i];
+                    n += es ? 1 : 0;
+                    stock += es ? s : 0;
+                    v += es ? precio * s : 0.0;
+                    suma += es ? precio : 0.0;
+                    minimo = Math.min(minimo, es ? precio : Double.POSITIVE_INFINITY);
+                    maximo = Math.max(maximo, es ? precio : Double.NEGATIVE_INFINITY);
+                }
+                cantidad[t] += n;
+                stockTotal[t] += stock;
+                valor[t] += v;
+                sumaPrecios[t] += suma;
+                precioMinimo[t] = Math.min(precioMinimo[t], minimo);
+                precioMaximo[t] = Math.max(precioMaximo[t], maximo);
+            }
+        }
+
+        Map<TipoTela, EstadisticasTipo> resultado = new EnumMap<>(TipoTela.class);
+        for (int t = 0; t < TIPOS.length; t++) {
+            if (cantidad[t] > 0) {
+                resultado.put(TIPOS[t], new EstadisticasTipo(TIPOS[t], cantidad[t], stockTotal[t], valor[t],
+                        sumaPrecios[t], precioMinimo[t], precioMaximo[t]));
+            }
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+
+    // No debe invocarse con escrituras en curso
+    synchronized void limpiar() {
+        paginas = new Pagina[0];
+        limite = 0;
+        cantidadLibres = 0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.inventario.repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+final class DiccionarioColores {
+
+    static final int SIN_COLOR = -1;
+
+    // Vocabulario pequeño y muy repetido: cada color normalizado recibe un id
+    private final Map<String, Integer> idsPorColor = new ConcurrentHashMap<>();
+    private volatile String[] coloresPorId = new String[16];
+    private volatile int totalColores;
+
+    // Una sola instancia por texto original, compartida por todos los productos
+    private final Map<String, String> canonicos = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Set<Long>> productosPorColor = new ConcurrentHashMap<>();
+
+    String internar(String color) {
+        if (color == null) {
+            return null;
+        }
+        String existente = canonicos.putIfAbsent(color, color);
+        return existente != null ? existente : color;
+    }
+
+    int idDe(String color) {
+        String normalizado = NormalizadorTexto.normalizar(color);
+        if (normalizado == null || normalizado.isEmpty()) {
+            return SIN_COLOR;
+        }
+        Integer id = idsPorColor.get(normalizado);
+        return id != null ? id : registrar(normalizado);
+    }
+
+    private synchronized int registrar(String normalizado) {
+        Integer id = idsPorColor.get(normalizado);
+        if (id != null) {
+            return id;
+        }
+        
+        int nuevo = totalColores;
+        String[] colores = coloresPorId;
+        if (nuevo == colores.length) {
+            colores = Arrays.copyOf(colores, colores.length * 2);
+        }
+        colores[nuevo] = normalizado;
+        coloresPorId = colores;
+        totalColores = nuevo + 1;
+        idsPorColor.put(normalizado, nuevo);
+        return nuevo;
+    }
+
+    void agregar(int colorId, Long idProducto) {
+        if (colorId != SIN_COLOR) {
+            productosPorColor.computeIfAbsent(colorId, k -> ConcurrentHashMap.newKeySet()).add(idProducto);
+        }
+    }
+
+    void quitar(int colorId, Long idProducto) {
+        Set<Long> productos = colorId != SIN_COLOR ? productosPorColor.get(colorId) : null;
+        if (productos != null) {
+            productos.remove(idProducto);
+        }
+    }
+
+    // Recorre el vocabulario (no el catálogo) buscando colores que contengan la consulta
+    void paraCadaColorQueContiene(String consultaNormalizada, IntConsumer accion) {
+        int total = totalColores;
+        String[] colores = coloresPorId;
+        for (int id = 0; id < total; id++) {
+            if (colores[id].contains(consultaNormalizada)) {
+                accion.accept(id);
+            }
+        }
+    }
+
+    Set<Long> productosDe(int colorId) {
+        Set<Long> productos = productosPorColor.get(colorId);
+        return productos != null ? productos : Set.of();
+    }
+
+    synchronized void limpiar() {
+        idsPorColor.clear();
+        canonicos.clear();
+        productosPorColor.clear();
+        coloresPorId = new String[16];
+        totalColores = 0;
+    }
+}
@@ -1,24 +1,135 @@
 package com.inventario.repository;
 
+import com.inventario.estadisticas.EstadisticasPorTipo;
+import com.inventario.estadisticas.EstadisticasTipo;
 import com.inventario.model.Producto;
+import com.inventario.model.ResultadoStock;
 import com.inventario.model.TipoTela;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IProductoRepository {
     
     Producto guardar(Producto producto);
     Producto actualizar(Producto producto);
     boolean eliminar(Long id);
+    Producto incrementarStock(Long id, int cantidad);
+    Producto decrementarStock(Long id, int cantidad);
     Optional<Producto> buscarPorId(Long id);
+
+    // Variantes con id primitivo para el camino caliente: sin Long ni Optional; null si no existe
+    default Producto obtenerPorId(long id) {
+        return buscarPorId(id).orElse(null);
+    }
+
+    default Producto incrementarStock(long id, int cantidad) {
+        return incrementarStock(Long.valueOf(id), cantidad);
+    }
+
+    default Producto decrementarStock(long id, int cantidad) {
+        return decrementarStock(Long.valueOf(id), cantidad);
+    }
+
+    // Movimientos sin excepciones en el rechazo (no encontrado, stock insuficiente, cantidad inválida)
+    ResultadoStock intentarIncrementarStock(long id, int cantidad);
+    ResultadoStock intentarDecrementarStock(long id, int cantidad);
+
     Optional<Producto> buscarPorCodigo(String codigo);
     List<Producto> obtenerTodos();
     List<Producto> buscarPorTipo(TipoTela tipoTela);
     List<Producto> obtenerProductosConStockBajo();
     List<Producto> buscarPorNombre(String nombre);
     List<Producto> buscarPorColor(String color);
+    long contarPorColor(String color);
     long contarProductos();
     long contarProductosConStockBajo();
+    long contarProductosCriticos();
     boolean existePorCodigo(String codigo);
     double calcularValorTotalInventario();
-}
\ No newline at end of file
+
+    default Map<TipoTela, EstadisticasTipo> calcularEstadisticasPorTipo() {
+        try (Stream<Producto> productos = streamActivos()) {
+            return productos.parallel().collect(EstadisticasPorTipo.colector());
+        }
+    }
+
+    // Paginación por clave: hasta 'tamano' productos activos con código mayor que 'despuesDeCodigo'
+    // (null para empezar), en orden de código
+    default PaginaProductos obtenerPagina(String despuesDeCodigo, int tamano) {
+        return paginar(obtenerTodos(), despuesDeCodigo, tamano);
+    }
+
+    default PaginaProductos obtenerPaginaPorTipo(TipoTela tipoTela, String despuesDeCodigo, int tamano) {
+        return paginar(buscarPorTipo(tipoTela), despuesDeCodigo, tamano);
+    }
+
+    private static PaginaProductos paginar(List<Producto> ordenados, String despuesDeCodigo, int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        List<Producto> pagina = new ArrayList<>(tamano);
+        for (Producto producto : ordenados) {
+            if (despuesDeCodigo != null && producto.getCodigo().compareTo(despuesDeCodigo) <= 0) {
+                continue;
+            }
+            if (pagina.size() == tamano) {
+                return new PaginaProductos(pagina, true);
+            }
+            pagina.add(producto);
+        }
+        return new PaginaProductos(pagina, false);
+    }
+
+    // Activos e inactivos (eliminados de forma lógica), p. ej. para una instantánea completa.
+    // Sin orden definido
+    default List<Producto> obtenerTodosConInactivos() {
+        return obtenerTodos();
+    }
+
+    // Recorre los productos activos sin reunirlos en una lista; el llamador debe cerrar el stream
+    default Stream<Producto> streamActivos() {
+        return obtenerTodos().stream();
+    }
+
+    // Guarda los productos válidos del lote; los de código repetido quedan fuera del resultado
+    default List<Producto> guardarTodos(List<Producto> productos) {
+        List<Producto> guardados = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            if (producto != null && producto.isActivo() && existePorCodigo(producto.getCodigo())) {
+                continue;
+            }
+            try {
+                guardados.add(guardar(producto));
+            } catch (IllegalArgumentException e) {
+                // Solo se omite si otro hilo registró el código entre la consulta y el guardado;
+                // cualquier otro rechazo se propaga
+                if (producto == null || !existePorCodigo(producto.getCodigo())) {
+                    throw e;
+                }
+            }
+        }
+        return guardados;
+    }
+
+    // Carga el contenido de una instantánea (ids ya asignados, códigos ya únicos); por defecto
+    // producto a producto
+    default void cargarRecuperados(List<Producto> productos) {
+        for (Producto producto : productos) {
+            guardar(producto);
+        }
+    }
+
+    // Se llama una vez al terminar de cargar la instantánea y el diario, antes de admitir escrituras
+    default void finalizarRecuperacion() {
+    }
+
+    default List<Producto> actualizarTodos(List<Producto> productos) {
+        for (Producto producto : productos) {
+            actualizar(producto);
+        }
+        return productos;
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventario.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class IndiceTrigramas {
+
+    static final int LONGITUD = 3;
+
+    private final Map<String, Set<Long>> listas = new ConcurrentHashMap<>();
+
+    void agregar(Long id, String textoNormalizado) {
+        for (int i = 0; i + LONGITUD <= textoNormalizado.length(); i++) {
+            listas.computeIfAbsent(textoNormalizado.substring(i, i + LONGITUD),
+                    k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    void quitar(Long id, String textoNormalizado) {
+        for (int i = 0; i + LONGITUD <= textoNormalizado.length(); i++) {
+            Set<Long> lista = listas.get(textoNormalizado.substring(i, i + LONGITUD));
+            if (lista != null) {
+                lista.remove(id);
+            }
+        }
+    }
+
+    // Agrega los trigramas nuevos antes de quitar los que ya no están: el id no desaparece
+    // de las listas que ambos textos comparten
+    void reemplazar(Long id, String anterior, String nuevo) {
+        agregar(id, nuevo);
+        for (int i = 0; i + LONGITUD <= anterior.length(); i++) {
+            String trigrama = anterior.substring(i, i + LONGITUD);
+            if (!nuevo.contains(trigrama)) {
+                Set<Long> lista = listas.get(trigrama);
+                if (lista != null) {
+                    lista.remove(id);
+                }
+            }
+        }
+    }
+
+    // Intersección de las listas de la consulta (mín. LONGITUD caracteres),
+    // empezando por la más corta; el llamador verifica el texto completo
+    List<Long> candidatos(String consultaNormalizada) {
+        List<Set<Long>> requeridas = new ArrayList<>();
+        for (int i = 0; i + LONGITUD <= consultaNormalizada.length(); i++) {
+            Set<Long> lista = listas.get(consultaNormalizada.substring(i, i + LONGITUD));
+            if (lista == null || lista.isEmpty()) {
+                return List.of();
+            }
+            requeridas.add(lista);
+        }
+        requeridas.sort(Comparator.comparingInt(Set::size));
+        
+        Set<Long> menor = requeridas.get(0);
+        List<Long> resultado = new ArrayList<>(menor.size());
+        for (Long id : menor) {
+            boolean enTodas = true;
+            for (int i = 1; i < requeridas.size() && enTodas; i++) {
+                enTodas = requeridas.get(i).contains(id);
+            }
+            if (enTodas) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    void limpiar() {
+        listas.clear();
+    }
+}
@@ -0,0 +1,195 @@
+package com.inventario.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/*
+ * Mapa concurrente de direccionamiento abierto (sondeo lineal) con claves long primitivas:
+ * sin Long ni nodos por entrada, solo dos arreglos paralelos.
+ *
+ * Lecturas sin candado con semántica acquire. Las escrituras no se serializan entre sí: una alta
+ * reclama su celda con CAS sobre la clave y después publica el valor (un lector que llega en medio
+ * ve la clave sin valor y la trata como ausente); un reemplazo cambia el valor con getAndSet.
+ * Solo el redimensionado es exclusivo: las escrituras toman la parte compartida de un StampedLock
+ * y el redimensionado la exclusiva, así ninguna escritura cae en una tabla que se está copiando.
+ * Son altas y reemplazos, nunca bajas (el repositorio marca los productos como inactivos).
+ */
+final class MapaLargo<V> {
+
+    private static final VarHandle CLAVES = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALORES = MethodHandles.arrayElementVarHandle(Object[].class);
+    // 0 marca una celda libre; la clave 0 se guarda aparte
+    private static final long LIBRE = 0L;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private static final class Tabla {
+        private final long[] claves;
+        private final Object[] valores;
+        private final int mascara;
+
+        private Tabla(int capacidad) {
+            this.claves = new long[capacidad];
+            this.valores = new Object[capacidad];
+            this.mascara = capacidad - 1;
+        }
+    }
+
+    private static final VarHandle VALOR_CERO;
+
+    static {
+        try {
+            VALOR_CERO = MethodHandles.lookup().findVarHandle(MapaLargo.class, "valorCero", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Tabla tabla = new Tabla(CAPACIDAD_INICIAL);
+    private volatile Object valorCero;
+    private final AtomicInteger tamano = new AtomicInteger();
+    private final StampedLock redimension = new StampedLock();
+
+    private static int indice(long clave, int mascara) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long clave) {
+        if (clave == LIBRE) {
+            return (V) valorCero;
+        }
+        Tabla t = tabla;
+        for (int i = indice(clave, t.mascara); ; i = (i + 1) & t.mascara) {
+            long k = (long) CLAVES.getAcquire(t.claves, i);
+            if (k == clave) {
+                return (V) VALORES.getAcquire(t.valores, i);
+            }
+            if (k == LIBRE) {
+                return null;
+            }
+        }
+    }
+
+    boolean containsKey(long clave) {
+        return get(clave) != null;
+    }
+
+    // Devuelve el valor anterior, o null si la clave es nueva
+    @SuppressWarnings("unchecked")
+    V put(long clave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("El valor no puede ser null");
+        }
+        
+        Object anterior;
+        boolean alta;
+        long sello = redimension.readLock();
+        try {
+            if (clave == LIBRE) {
+                anterior = VALOR_CERO.getAndSet(this, valor);
+                alta = anterior == null;
+            } else {
+                Tabla t = tabla;
+                int i = indice(clave, t.mascara);
+                while (true) {
+                    long k = (long) CLAVES.getAcquire(t.claves, i);
+                    if (k == LIBRE && CLAVES.compareAndSet(t.claves, i, LIBRE, clave)) {
+                        VALORES.setRelease(t.valores, i, valor);
+                        anterior = null;
+                        alta = true;
+                        break;
+                    }
+                    if (k == LIBRE) {
+                        // Otra alta ganó la celda: se vuelve a mirar por si era esta misma clave
+                        continue;
+                    }
+                    if (k == clave) {
+                        anterior = VALORES.getAndSet(t.valores, i, valor);
+                        alta = false;
+                        break;
+                    }
+                    i = (i + 1) & t.mascara;
+                }
+            }
+        } finally {
+            redimension.unlockRead(sello);
+        }
+        
+        if (alta) {
+            int n = tamano.incrementAndGet();
+            // Factor de carga máximo 0.5: sondeos cortos incluso con claves consecutivas
+            if (n * 2 > tabla.claves.length) {
+                redimensionarSiHaceFalta();
+            }
+        }
+        return (V) anterior;
+    }
+
+    private void redimensionarSiHaceFalta() {
+        long sello = redimension.writeLock();
+        try {
+            Tabla t = tabla;
+            if (tamano.get() * 2 > t.claves.length) {
+                tabla = redimensionar(t);
+            }
+        } finally {
+            redimension.unlockWrite(sello);
+        }
+    }
+
+    private static Tabla redimensionar(Tabla anterior) {
+        Tabla nueva = new Tabla(anterior.claves.length * 2);
+        for (int j = 0; j < anterior.claves.length; j++) {
+            long clave = anterior.claves[j];
+            if (clave == LIBRE) {
+                continue;
+            }
+            int i = indice(clave, nueva.mascara);
+            while (nueva.claves[i] != LIBRE) {
+                i = (i + 1) & nueva.mascara;
+            }
+            nueva.claves[i] = clave;
+            nueva.valores[i] = anterior.valores[j];
+        }
+        // Sin escrituras en curso (candado exclusivo); se publica con la escritura volátil del llamador
+        return nueva;
+    }
+
+    int size() {
+        return tamano.get();
+    }
+
+    // Recorrido débilmente consistente: puede no ver las altas posteriores a su inicio
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> accion) {
+        Object cero = valorCero;
+        if (cero != null) {
+            accion.accept((V) cero);
+        }
+        Tabla t = tabla;
+        for (int i = 0; i < t.claves.length; i++) {
+            if ((long) CLAVES.getAcquire(t.claves, i) != LIBRE) {
+                Object valor = VALORES.getAcquire(t.valores, i);
+                // null: alta a medio publicar
+                if (valor != null) {
+                    accion.accept((V) valor);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        long sello = redimension.writeLock();
+        try {
+            tabla = new Tabla(CAPACIDAD_INICIAL);
+            valorCero = null;
+            tamano.set(0);
+        } finally {
+            redimension.unlockWrite(sello);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventario.repository;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+final class NormalizadorTexto {
+
+    private NormalizadorTexto() {
+    }
+
+    // Minúsculas y sin tildes, para que "algodon" encuentre "Algodón"
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String recortado = texto.trim();
+        if (recortado.isEmpty()) {
+            return "";
+        }
+        
+        boolean ascii = true;
+        for (int i = 0; i < recortado.length() && ascii; i++) {
+            ascii = recortado.charAt(i) < 128;
+        }
+        if (ascii) {
+            return recortado.toLowerCase(Locale.ROOT);
+        }
+        
+        String descompuesto = Normalizer.normalize(recortado, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
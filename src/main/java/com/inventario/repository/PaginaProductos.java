@@ -0,0 +1,30 @@
+package com.inventario.repository;
+
+import com.inventario.model.Producto;
+import java.util.Collections;
+import java.util.List;
+
+// Página de productos ordenados por código; el cursor es el código del último de la página
+public class PaginaProductos {
+
+    private final List<Producto> productos;
+    private final boolean hayMas;
+
+    public PaginaProductos(List<Producto> productos, boolean hayMas) {
+        this.productos = Collections.unmodifiableList(productos);
+        this.hayMas = hayMas;
+    }
+
+    public List<Producto> getProductos() {
+        return productos;
+    }
+
+    public boolean hayMas() {
+        return hayMas;
+    }
+
+    // Valor para pedir la página siguiente; null si esta es la última
+    public String getSiguienteCursor() {
+        return hayMas && !productos.isEmpty() ? productos.get(productos.size() - 1).getCodigo() : null;
+    }
+}
@@ -0,0 +1,715 @@
+package com.inventario.repository;
+
+import com.inventario.estadisticas.EstadisticasTipo;
+import com.inventario.model.Producto;
+import com.inventario.model.Reloj;
+import com.inventario.model.ResultadoStock;
+import com.inventario.model.TipoTela;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+public class ProductoRepositoryH2 implements IProductoRepository, AutoCloseable {
+
+    private static final String COLUMNAS =
+            "id, codigo, nombre, tipo_tela, color, precio, stock_actual, stock_minimo, " +
+            "fecha_creacion, fecha_actualizacion, activo";
+
+    // codigo_activo es NULL para los eliminados, así el índice único solo aplica a productos activos
+    private static final String[] ESQUEMA = {
+        "CREATE TABLE IF NOT EXISTS producto (" +
+        "  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY," +
+        "  codigo VARCHAR(50) NOT NULL," +
+        "  codigo_normalizado VARCHAR(50) NOT NULL," +
+        "  nombre VARCHAR(255) NOT NULL," +
+        "  nombre_busqueda VARCHAR(255) NOT NULL," +
+        "  tipo_tela VARCHAR(20) NOT NULL," +
+        "  color VARCHAR(100)," +
+        "  color_busqueda VARCHAR(100)," +
+        "  precio DOUBLE PRECISION NOT NULL," +
+        "  stock_actual INT NOT NULL," +
+        "  stock_minimo INT NOT NULL," +
+        "  fecha_creacion TIMESTAMP NOT NULL," +
+        "  fecha_actualizacion TIMESTAMP NOT NULL," +
+        "  activo BOOLEAN NOT NULL," +
+        "  codigo_activo VARCHAR(50) GENERATED ALWAYS AS " +
+        "      (CASE WHEN activo THEN codigo_normalizado END)," +
+        "  stock_bajo BOOLEAN GENERATED ALWAYS AS (activo AND stock_actual <= stock_minimo)" +
+        ")",
+        "CREATE UNIQUE INDEX IF NOT EXISTS ux_producto_codigo_activo ON producto (codigo_activo)",
+        "CREATE INDEX IF NOT EXISTS ix_producto_activo_codigo ON producto (activo, codigo)",
+        "CREATE INDEX IF NOT EXISTS ix_producto_tipo_codigo ON producto (tipo_tela, codigo)",
+        "CREATE INDEX IF NOT EXISTS ix_producto_stock_bajo ON producto (stock_bajo, stock_actual, codigo)"
+    };
+
+    private static final String SQL_INSERTAR =
+            "INSERT INTO producto (codigo, codigo_normalizado, nombre, nombre_busqueda, tipo_tela, " +
+            "color, color_busqueda, precio, stock_actual, stock_minimo, fecha_creacion, " +
+            "fecha_actualizacion, activo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERTAR_CON_ID =
+            "INSERT INTO producto (codigo, codigo_normalizado, nombre, nombre_busqueda, tipo_tela, " +
+            "color, color_busqueda, precio, stock_actual, stock_minimo, fecha_creacion, " +
+            "fecha_actualizacion, activo, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_ACTUALIZAR =
+            "UPDATE producto SET codigo = ?, codigo_normalizado = ?, nombre = ?, nombre_busqueda = ?, " +
+            "tipo_tela = ?, color = ?, color_busqueda = ?, precio = ?, stock_actual = ?, " +
+            "stock_minimo = ?, fecha_creacion = ?, fecha_actualizacion = ?, activo = ? WHERE id = ?";
+
+    private final JdbcConnectionPool pool;
+    // Marca de las actualizaciones hechas en SQL y reloj de los productos leídos
+    private final Reloj reloj;
+
+    public ProductoRepositoryH2(String url, String usuario, String clave) {
+        this(url, usuario, clave, Reloj.SISTEMA);
+    }
+
+    public ProductoRepositoryH2(String url, String usuario, String clave, Reloj reloj) {
+        if (reloj == null) {
+            throw new IllegalArgumentException("El reloj no puede ser null");
+        }
+        this.pool = JdbcConnectionPool.create(url, usuario, clave);
+        this.reloj = reloj;
+        crearEsquema();
+    }
+
+    private LocalDateTime ahora() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(reloj.ahoraMillis()), ZoneId.systemDefault());
+    }
+
+    public static ProductoRepositoryH2 enMemoria(String nombreBase) {
+        return new ProductoRepositoryH2("jdbc:h2:mem:" + nombreBase + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    public static ProductoRepositoryH2 enArchivo(String ruta) {
+        return new ProductoRepositoryH2("jdbc:h2:file:" + ruta, "sa", "");
+    }
+
+    @FunctionalInterface
+    private interface OperacionSql<T> {
+        T ejecutar(Connection conexion) throws SQLException;
+    }
+
+    private <T> T ejecutar(OperacionSql<T> operacion) {
+        try (Connection conexion = pool.getConnection()) {
+            return operacion.ejecutar(conexion);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error de acceso a datos: " + e.getMessage(), e);
+        }
+    }
+
+    // Ejecuta la operación en una transacción; hace rollback si falla
+    private <T> T enTransaccion(OperacionSql<T> operacion) {
+        return ejecutar(conexion -> {
+            conexion.setAutoCommit(false);
+            try {
+                T resultado = operacion.ejecutar(conexion);
+                conexion.commit();
+                return resultado;
+            } catch (SQLException | RuntimeException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(true);
+            }
+        });
+    }
+
+    private void crearEsquema() {
+        ejecutar(conexion -> {
+            try (Statement st = conexion.createStatement()) {
+                for (String sentencia : ESQUEMA) {
+                    st.execute(sentencia);
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Producto guardar(Producto producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser null");
+        }
+
+        if (producto.isActivo() && existePorCodigo(producto.getCodigo())) {
+            throw new IllegalArgumentException(
+                "Ya existe un producto con el código: " + producto.getCodigo()
+            );
+        }
+
+        String sql = producto.getId() == null ? SQL_INSERTAR : SQL_INSERTAR_CON_ID;
+        try {
+            return ejecutar(conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    asignarParametros(ps, producto);
+                    if (producto.getId() != null) {
+                        ps.setLong(14, producto.getId());
+                    }
+                    ps.executeUpdate();
+                    asignarIdsGenerados(ps, List.of(producto));
+                }
+                return producto;
+            });
+        } catch (IllegalStateException e) {
+            throw traducirDuplicado(e, producto);
+        }
+    }
+
+    @Override
+    public List<Producto> guardarTodos(List<Producto> productos) {
+        // Descarta nulos, códigos repetidos dentro del lote y códigos ya registrados
+        Map<String, Producto> porCodigo = new LinkedHashMap<>();
+        for (Producto producto : productos) {
+            String clave = producto != null ? ProductoRepositoryImpl.normalizarCodigo(producto.getCodigo()) : null;
+            if (clave != null) {
+                porCodigo.putIfAbsent(clave, producto);
+            }
+        }
+        if (porCodigo.isEmpty()) {
+            return List.of();
+        }
+
+        return enTransaccion(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT codigo_activo FROM producto WHERE codigo_activo = ANY(?)")) {
+                ps.setObject(1, porCodigo.keySet().toArray(new String[0]));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        porCodigo.remove(rs.getString(1));
+                    }
+                }
+            }
+
+            List<Producto> sinId = new ArrayList<>();
+            List<Producto> conId = new ArrayList<>();
+            for (Producto producto : porCodigo.values()) {
+                (producto.getId() == null ? sinId : conId).add(producto);
+            }
+            
+            try (PreparedStatement ps = conexion.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
+                for (Producto producto : sinId) {
+                    asignarParametros(ps, producto);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                asignarIdsGenerados(ps, sinId);
+            }
+            if (!conId.isEmpty()) {
+                try (PreparedStatement ps = conexion.prepareStatement(SQL_INSERTAR_CON_ID)) {
+                    for (Producto producto : conId) {
+                        asignarParametros(ps, producto);
+                        ps.setLong(14, producto.getId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            
+            List<Producto> guardados = new ArrayList<>(sinId);
+            guardados.addAll(conId);
+            return guardados;
+        });
+    }
+
+    // Los ids explícitos de la recuperación no avanzan la identidad: se lleva una sola vez más allá
+    // del máximo, sin escrituras en curso. Es DDL, nunca forma parte de una escritura normal
+    @Override
+    public void finalizarRecuperacion() {
+        ejecutar(conexion -> {
+            long siguiente;
+            try (Statement st = conexion.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM producto")) {
+                rs.next();
+                siguiente = rs.getLong(1);
+            }
+            try (Statement st = conexion.createStatement()) {
+                st.execute("ALTER TABLE producto ALTER COLUMN id RESTART WITH " + siguiente);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Producto actualizar(Producto producto) {
+        if (producto == null || producto.getId() == null) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser null");
+        }
+
+        int filas;
+        try {
+            filas = ejecutar(conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement(SQL_ACTUALIZAR)) {
+                    asignarParametros(ps, producto);
+                    ps.setLong(14, producto.getId());
+                    return ps.executeUpdate();
+                }
+            });
+        } catch (IllegalStateException e) {
+            throw traducirDuplicado(e, producto);
+        }
+
+        if (filas == 0) {
+            throw new IllegalArgumentException("No existe el producto con ID: " + producto.getId());
+        }
+        return producto;
+    }
+
+    @Override
+    public List<Producto> actualizarTodos(List<Producto> productos) {
+        for (Producto producto : productos) {
+            if (producto == null || producto.getId() == null) {
+                throw new IllegalArgumentException("El producto y su ID no pueden ser null");
+            }
+        }
+
+        try {
+            return enTransaccion(conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement(SQL_ACTUALIZAR)) {
+                    for (Producto producto : productos) {
+                        asignarParametros(ps, producto);
+                        ps.setLong(14, producto.getId());
+                        ps.addBatch();
+                    }
+                    int[] filas = ps.executeBatch();
+                    for (int i = 0; i < filas.length; i++) {
+                        if (filas[i] == 0) {
+                            throw new IllegalArgumentException(
+                                "No existe el producto con ID: " + productos.get(i).getId());
+                        }
+                    }
+                }
+                return productos;
+            });
+        } catch (IllegalStateException e) {
+            throw traducirDuplicado(e, null);
+        }
+    }
+
+    @Override
+    public boolean eliminar(Long id) {
+        if (id == null) {
+            return false;
+        }
+
+        return ejecutar(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "UPDATE producto SET activo = FALSE WHERE id = ?")) {
+                ps.setLong(1, id);
+                return ps.executeUpdate() > 0;
+            }
+        });
+    }
+
+    @Override
+    public Producto incrementarStock(Long id, int cantidad) {
+        return productoOLanzar(intentarIncrementarStock(id, cantidad), id, cantidad);
+    }
+
+    @Override
+    public Producto decrementarStock(Long id, int cantidad) {
+        return productoOLanzar(intentarDecrementarStock(id, cantidad), id, cantidad);
+    }
+
+    @Override
+    public ResultadoStock intentarIncrementarStock(long id, int cantidad) {
+        if (cantidad < 0) {
+            return ResultadoStock.entradaInvalida();
+        }
+
+        return enTransaccion(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "UPDATE producto SET stock_actual = stock_actual + ?, fecha_actualizacion = ? WHERE id = ?")) {
+                ps.setInt(1, cantidad);
+                ps.setObject(2, ahora());
+                ps.setLong(3, id);
+                if (ps.executeUpdate() == 0) {
+                    return ResultadoStock.noEncontrado();
+                }
+            }
+            Producto producto = buscarPorId(conexion, id).orElseThrow();
+            return ResultadoStock.exito(producto, producto.getStockActual());
+        });
+    }
+
+    @Override
+    public ResultadoStock intentarDecrementarStock(long id, int cantidad) {
+        if (cantidad < 0) {
+            return ResultadoStock.entradaInvalida();
+        }
+
+        return enTransaccion(conexion -> {
+            // El descuento solo se aplica si alcanza el stock, en la misma sentencia
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "UPDATE producto SET stock_actual = stock_actual - ?, fecha_actualizacion = ? " +
+                    "WHERE id = ? AND stock_actual >= ?")) {
+                ps.setInt(1, cantidad);
+                ps.setObject(2, ahora());
+                ps.setLong(3, id);
+                ps.setInt(4, cantidad);
+                if (ps.executeUpdate() > 0) {
+                    Producto producto = buscarPorId(conexion, id).orElseThrow();
+                    return ResultadoStock.exito(producto, producto.getStockActual());
+                }
+            }
+
+            Optional<Producto> producto = buscarPorId(conexion, id);
+            return producto.isPresent()
+                    ? ResultadoStock.stockInsuficiente(producto.get(), producto.get().getStockActual())
+                    : ResultadoStock.noEncontrado();
+        });
+    }
+
+    private static Producto productoOLanzar(ResultadoStock resultado, Long id, int cantidad) {
+        switch (resultado.getEstado()) {
+            case EXITO:
+                return resultado.getProducto();
+            case NO_ENCONTRADO:
+                throw new IllegalArgumentException("Producto no encontrado con ID: " + id);
+            case STOCK_INSUFICIENTE:
+                throw new IllegalStateException(
+                    String.format("Stock insuficiente. Disponible: %d, Solicitado: %d",
+                                 resultado.getDisponible(), cantidad)
+                );
+            default:
+                throw new IllegalArgumentException("La cantidad debe ser positiva");
+        }
+    }
+
+    @Override
+    public Optional<Producto> buscarPorId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return ejecutar(conexion -> buscarPorId(conexion, id));
+    }
+
+    private Optional<Producto> buscarPorId(Connection conexion, Long id) throws SQLException {
+        List<Producto> resultado = consultar(conexion,
+                "SELECT " + COLUMNAS + " FROM producto WHERE id = ?", id);
+        return resultado.isEmpty() ? Optional.empty() : Optional.of(resultado.get(0));
+    }
+
+    @Override
+    public Optional<Producto> buscarPorCodigo(String codigo) {
+        String clave = ProductoRepositoryImpl.normalizarCodigo(codigo);
+        if (clave == null) {
+            return Optional.empty();
+        }
+
+        List<Producto> resultado = consultar(
+                "SELECT " + COLUMNAS + " FROM producto WHERE codigo_activo = ?", clave);
+        return resultado.isEmpty() ? Optional.empty() : Optional.of(resultado.get(0));
+    }
+
+    @Override
+    public List<Producto> obtenerTodos() {
+        return consultar("SELECT " + COLUMNAS + " FROM producto WHERE activo ORDER BY codigo");
+    }
+
+    @Override
+    public List<Producto> obtenerTodosConInactivos() {
+        return consultar("SELECT " + COLUMNAS + " FROM producto");
+    }
+
+    // Se pide una fila de más para saber si hay otra página
+    @Override
+    public PaginaProductos obtenerPagina(String despuesDeCodigo, int tamano) {
+        validarTamanoPagina(tamano);
+        List<Producto> filas = despuesDeCodigo == null
+                ? consultar("SELECT " + COLUMNAS + " FROM producto WHERE activo ORDER BY codigo LIMIT ?",
+                            tamano + 1)
+                : consultar("SELECT " + COLUMNAS + " FROM producto WHERE activo AND codigo > ? " +
+                            "ORDER BY codigo LIMIT ?", despuesDeCodigo, tamano + 1);
+        return pagina(filas, tamano);
+    }
+
+    @Override
+    public PaginaProductos obtenerPaginaPorTipo(TipoTela tipoTela, String despuesDeCodigo, int tamano) {
+        validarTamanoPagina(tamano);
+        if (tipoTela == null) {
+            return new PaginaProductos(Collections.emptyList(), false);
+        }
+        List<Producto> filas = despuesDeCodigo == null
+                ? consultar("SELECT " + COLUMNAS + " FROM producto WHERE tipo_tela = ? AND activo " +
+                            "ORDER BY codigo LIMIT ?", tipoTela.name(), tamano + 1)
+                : consultar("SELECT " + COLUMNAS + " FROM producto WHERE tipo_tela = ? AND activo " +
+                            "AND codigo > ? ORDER BY codigo LIMIT ?", tipoTela.name(), despuesDeCodigo, tamano + 1);
+        return pagina(filas, tamano);
+    }
+
+    private static void validarTamanoPagina(int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+    }
+
+    private static PaginaProductos pagina(List<Producto> filas, int tamano) {
+        boolean hayMas = filas.size() > tamano;
+        return new PaginaProductos(hayMas ? filas.subList(0, tamano) : filas, hayMas);
+    }
+
+    // El cursor y su conexión quedan abiertos hasta cerrar el stream
+    @Override
+    public Stream<Producto> streamActivos() {
+        Connection conexion = null;
+        try {
+            conexion = pool.getConnection();
+            PreparedStatement ps = conexion.prepareStatement("SELECT " + COLUMNAS + " FROM producto WHERE activo");
+            ps.setFetchSize(1000);
+            ResultSet rs = ps.executeQuery();
+            Connection abierta = conexion;
+
+            Spliterator<Producto> filas = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Producto> accion) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        accion.accept(mapear(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Error de acceso a datos: " + e.getMessage(), e);
+                    }
+                }
+            };
+            return StreamSupport.stream(filas, false).onClose(() -> {
+                try {
+                    abierta.close();
+                } catch (SQLException e) {
+                    System.err.println("Error al cerrar conexión: " + e.getMessage());
+                }
+            });
+        } catch (SQLException e) {
+            if (conexion != null) {
+                try {
+                    conexion.close();
+                } catch (SQLException ignorada) {
+                    e.addSuppressed(ignorada);
+                }
+            }
+            throw new IllegalStateException("Error de acceso a datos: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Producto> buscarPorTipo(TipoTela tipoTela) {
+        if (tipoTela == null) {
+            return Collections.emptyList();
+        }
+
+        return consultar("SELECT " + COLUMNAS + " FROM producto WHERE tipo_tela = ? AND activo ORDER BY codigo",
+                tipoTela.name());
+    }
+
+    @Override
+    public List<Producto> obtenerProductosConStockBajo() {
+        return consultar("SELECT " + COLUMNAS + " FROM producto WHERE stock_bajo " +
+                "ORDER BY stock_actual, codigo");
+    }
+
+    @Override
+    public List<Producto> buscarPorNombre(String nombre) {
+        if (nombre == null || nombre.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return consultar("SELECT " + COLUMNAS + " FROM producto " +
+                "WHERE activo AND nombre_busqueda LIKE ? ESCAPE '\\' ORDER BY nombre",
+                patronContiene(nombre));
+    }
+
+    @Override
+    public List<Producto> buscarPorColor(String color) {
+        if (color == null || color.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return consultar("SELECT " + COLUMNAS + " FROM producto " +
+                "WHERE activo AND color_busqueda LIKE ? ESCAPE '\\' ORDER BY codigo",
+                patronContiene(color));
+    }
+
+    @Override
+    public long contarPorColor(String color) {
+        if (color == null || color.trim().isEmpty()) {
+            return 0;
+        }
+
+        return contar("SELECT COUNT(*) FROM producto WHERE activo AND color_busqueda LIKE ? ESCAPE '\\'",
+                patronContiene(color));
+    }
+
+    @Override
+    public long contarProductos() {
+        return contar("SELECT COUNT(*) FROM producto WHERE activo");
+    }
+
+    @Override
+    public long contarProductosConStockBajo() {
+        return contar("SELECT COUNT(*) FROM producto WHERE stock_bajo");
+    }
+
+    @Override
+    public long contarProductosCriticos() {
+        return contar("SELECT COUNT(*) FROM producto WHERE stock_bajo AND stock_actual = 0");
+    }
+
+    @Override
+    public boolean existePorCodigo(String codigo) {
+        String clave = ProductoRepositoryImpl.normalizarCodigo(codigo);
+        if (clave == null) {
+            return false;
+        }
+
+        return contar("SELECT COUNT(*) FROM producto WHERE codigo_activo = ?", clave) > 0;
+    }
+
+    @Override
+    public double calcularValorTotalInventario() {
+        return ejecutar(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT COALESCE(SUM(precio * stock_actual), 0) FROM producto WHERE activo");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        });
+    }
+
+    @Override
+    public Map<TipoTela, EstadisticasTipo> calcularEstadisticasPorTipo() {
+        return ejecutar(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT tipo_tela, COUNT(*), SUM(stock_actual), SUM(precio * stock_actual), SUM(precio), " +
+                    "MIN(precio), MAX(precio) FROM producto WHERE activo GROUP BY tipo_tela");
+                 ResultSet rs = ps.executeQuery()) {
+                Map<TipoTela, EstadisticasTipo> resultado = new EnumMap<>(TipoTela.class);
+                while (rs.next()) {
+                    TipoTela tipo = TipoTela.valueOf(rs.getString(1));
+                    resultado.put(tipo, new EstadisticasTipo(tipo, rs.getLong(2), rs.getLong(3), rs.getDouble(4),
+                            rs.getDouble(5), rs.getDouble(6), rs.getDouble(7)));
+                }
+                return Collections.unmodifiableMap(resultado);
+            }
+        });
+    }
+
+    private List<Producto> consultar(String sql, Object... parametros) {
+        return ejecutar(conexion -> consultar(conexion, sql, parametros));
+    }
+
+    private List<Producto> consultar(Connection conexion, String sql, Object... parametros) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Producto> resultado = new ArrayList<>();
+                while (rs.next()) {
+                    resultado.add(mapear(rs));
+                }
+                return resultado;
+            }
+        }
+    }
+
+    private long contar(String sql, Object... parametros) {
+        return ejecutar(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+                for (int i = 0; i < parametros.length; i++) {
+                    ps.setObject(i + 1, parametros[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        });
+    }
+
+    private static void asignarParametros(PreparedStatement ps, Producto producto) throws SQLException {
+        ps.setString(1, producto.getCodigo());
+        ps.setString(2, ProductoRepositoryImpl.normalizarCodigo(producto.getCodigo()));
+        ps.setString(3, producto.getNombre());
+        ps.setString(4, NormalizadorTexto.normalizar(producto.getNombre()));
+        ps.setString(5, producto.getTipoTela().name());
+        ps.setString(6, producto.getColor());
+        ps.setString(7, NormalizadorTexto.normalizar(producto.getColor()));
+        ps.setDouble(8, producto.getPrecio());
+        ps.setInt(9, producto.getStockActual());
+        ps.setInt(10, producto.getStockMinimo());
+        ps.setObject(11, producto.getFechaCreacion());
+        ps.setObject(12, producto.getFechaActualizacion());
+        ps.setBoolean(13, producto.isActivo());
+    }
+
+    private static void asignarIdsGenerados(PreparedStatement ps, List<Producto> productos) throws SQLException {
+        try (ResultSet claves = ps.getGeneratedKeys()) {
+            for (Producto producto : productos) {
+                if (!claves.next()) {
+                    break;
+                }
+                if (producto.getId() == null) {
+                    producto.setId(claves.getLong(1));
+                }
+            }
+        }
+    }
+
+    private Producto mapear(ResultSet rs) throws SQLException {
+        Producto producto = new Producto(
+                rs.getString("codigo"),
+                rs.getString("nombre"),
+                TipoTela.valueOf(rs.getString("tipo_tela")),
+                rs.getString("color"),
+                rs.getDouble("precio"),
+                rs.getInt("stock_actual"),
+                rs.getInt("stock_minimo"),
+                reloj);
+        producto.setId(rs.getLong("id"));
+        producto.setFechaCreacion(rs.getObject("fecha_creacion", LocalDateTime.class));
+        producto.setFechaActualizacion(rs.getObject("fecha_actualizacion", LocalDateTime.class));
+        producto.setActivo(rs.getBoolean("activo"));
+        return producto;
+    }
+
+    private static String patronContiene(String texto) {
+        String normalizado = NormalizadorTexto.normalizar(texto);
+        StringBuilder patron = new StringBuilder(normalizado.length() + 2).append('%');
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                patron.append('\\');
+            }
+            patron.append(c);
+        }
+        return patron.append('%').toString();
+    }
+
+    // Una violación del índice único de código llega como SQLState 23505
+    private static RuntimeException traducirDuplicado(IllegalStateException e, Producto producto) {
+        if (e.getCause() instanceof SQLException
+                && "23505".equals(((SQLException) e.getCause()).getSQLState())) {
+            String codigo = producto != null ? producto.getCodigo() : "(lote)";
+            return new IllegalArgumentException("Ya existe un producto con el código: " + codigo, e);
+        }
+        return e;
+    }
+
+    @Override
+    public void close() {
+        pool.dispose();
+    }
+}
@@ -1,19 +1,144 @@
 package com.inventario.repository;
 
+import com.inventario.estadisticas.EstadisticasTipo;
 import com.inventario.model.Producto;
+import com.inventario.model.Reloj;
+import com.inventario.model.ResultadoStock;
 import com.inventario.model.TipoTela;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 public class ProductoRepositoryImpl implements IProductoRepository {
-    private final Map<Long, Producto> productos;
+    // Mapa de claves long primitivas: sin Long ni nodo por producto, lecturas sin candado
+    private final MapaLargo<Producto> productos;
     private final AtomicLong idGenerator;
+    // Candados por franjas de id: escrituras sobre productos distintos no compiten entre sí
+    private final Object[] candados;
+    
+    // Índice secundario: código normalizado -> id (solo productos activos)
+    private final Map<String, Long> indiceCodigo;
+    // Productos activos ordenados por código: listados y paginación sin ordenar
+    private final ConcurrentSkipListMap<String, Producto> indicePorCodigo;
+    // Índice por tipo de tela, cada bucket ordenado por código
+    private final Map<TipoTela, ConcurrentSkipListMap<String, Producto>> indiceTipo;
+    // Productos con stock bajo ordenados por (stock, código)
+    private final ConcurrentSkipListMap<ClaveStock, Producto> indiceStockBajo;
+    // Trigramas de los nombres normalizados (sin tildes, minúsculas)
+    private final IndiceTrigramas indiceNombre;
+    // Colores normalizados a ids pequeños, con su conjunto de productos
+    private final DiccionarioColores diccionarioColores;
+    // Valores con los que quedó indexado cada producto, para detectar cambios en actualizar
+    private final Map<Long, Huella> huellas;
+    
+    // Precio, stock, stock mínimo y tipo por columnas: valor total, stock bajo, críticos y
+    // estadísticas por tipo se calculan recorriéndolas (el slot va en la huella)
+    private final ColumnasNumericas columnas;
+    
+    // Productos activos, mantenido en cada alta y baja
+    private final LongAdder totalActivos;
+    // Se asigna a cada producto guardado: sus movimientos de stock se marcan con este reloj
+    private final Reloj reloj;
     
     public ProductoRepositoryImpl() {
-        this.productos = new ConcurrentHashMap<>();
+        this(Reloj.SISTEMA);
+    }
+
+    public ProductoRepositoryImpl(Reloj reloj) {
+        if (reloj == null) {
+            throw new IllegalArgumentException("El reloj no puede ser null");
+        }
+        this.reloj = reloj;
+        this.productos = new MapaLargo<>();
         this.idGenerator = new AtomicLong(1);
+        this.candados = new Object[64];
+        for (int i = 0; i < candados.length; i++) {
+            candados[i] = new Object();
+        }
+        this.indiceCodigo = new ConcurrentHashMap<>();
+        this.indicePorCodigo = new ConcurrentSkipListMap<>();
+        this.indiceTipo = new EnumMap<>(TipoTela.class);
+        for (TipoTela tipo : TipoTela.values()) {
+            indiceTipo.put(tipo, new ConcurrentSkipListMap<>());
+        }
+        this.indiceStockBajo = new ConcurrentSkipListMap<>();
+        this.indiceNombre = new IndiceTrigramas();
+        this.diccionarioColores = new DiccionarioColores();
+        this.huellas = new ConcurrentHashMap<>();
+        this.columnas = new ColumnasNumericas();
+        this.totalActivos = new LongAdder();
+    }
+
+    private static final class Huella {
+        private final String clave;
+        private final String codigo;
+        private final TipoTela tipoTela;
+        private final String nombreNormalizado;
+        private final int colorId;
+        // Cambian en los movimientos de stock, siempre con el candado del producto
+        private int stockActual;
+        private boolean stockBajo;
+        // Slot del producto en las columnas numéricas
+        private final int slot;
+
+        private Huella(Producto producto, int colorId, int slot) {
+            this.clave = normalizarCodigo(producto.getCodigo());
+            this.codigo = producto.getCodigo();
+            this.tipoTela = producto.getTipoTela();
+            this.nombreNormalizado = NormalizadorTexto.normalizar(producto.getNombre());
+            this.colorId = colorId;
+            this.stockActual = producto.getStockActual();
+            this.stockBajo = producto.tieneStockBajo();
+            this.slot = slot;
+        }
+
+        private ClaveStock claveStock() {
+            return new ClaveStock(stockActual, codigo != null ? codigo : "");
+        }
+    }
+
+    private static final class ClaveStock implements Comparable<ClaveStock> {
+        private final int stock;
+        private final String codigo;
+
+        private ClaveStock(int stock, String codigo) {
+            this.stock = stock;
+            this.codigo = codigo;
+        }
+
+        @Override
+        public int compareTo(ClaveStock otra) {
+            int comparacion = Integer.compare(stock, otra.stock);
+            return comparacion != 0 ? comparacion : codigo.compareTo(otra.codigo);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ClaveStock)) return false;
+            ClaveStock otra = (ClaveStock) o;
+            return stock == otra.stock && codigo.equals(otra.codigo);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * stock + codigo.hashCode();
+        }
+    }
+
+    static String normalizarCodigo(String codigo) {
+        if (codigo == null) {
+            return null;
+        }
+        String recortado = codigo.trim();
+        return recortado.isEmpty() ? null : recortado.toLowerCase(Locale.ROOT);
+    }
+
+    private Object candado(long id) {
+        return candados[Long.hashCode(id) & (candados.length - 1)];
     }
 
     @Override
@@ -22,7 +147,7 @@ public class ProductoRepositoryImpl implements IProductoRepository {
             throw new IllegalArgumentException("El producto no puede ser null");
         }
         
-        if (existePorCodigo(producto.getCodigo())) {
+        if (producto.isActivo() && existePorCodigo(producto.getCodigo())) {
             throw new IllegalArgumentException(
                 "Ya existe un producto con el código: " + producto.getCodigo()
             );
@@ -30,24 +155,96 @@ public class ProductoRepositoryImpl implements IProductoRepository {
         
         if (producto.getId() == null) {
             producto.setId(idGenerator.getAndIncrement());
+        } else {
+            // Id ya asignado (p. ej. al recuperar): el generador no debe volver a entregarlo
+            long siguiente = producto.getId() + 1;
+            idGenerator.accumulateAndGet(siguiente, Math::max);
         }
         
-        productos.put(producto.getId(), producto);
+        synchronized (candado(producto.getId())) {
+            reservarCodigo(producto);
+            producto.setReloj(reloj);
+            productos.put(producto.getId(), producto);
+            reindexar(producto);
+        }
         
         return producto;
     }
 
+    // Carga masiva sobre un repositorio vacío, sin escrituras en curso: sin candados ni comparar
+    // huellas, y el total de activos se suma una sola vez al final. Un id o un código activo
+    // repetido (instantánea dañada o editada a mano) deja el repositorio vacío y se rechaza
+    @Override
+    public void cargarRecuperados(List<Producto> lote) {
+        if (productos.size() > 0) {
+            IProductoRepository.super.cargarRecuperados(lote);
+            return;
+        }
+        
+        long activos = 0;
+        long siguienteId = 1;
+        for (Producto producto : lote) {
+            if (producto == null || producto.getId() == null) {
+                throw new IllegalArgumentException("El producto recuperado y su ID no pueden ser null");
+            }
+            Long id = producto.getId();
+            siguienteId = Math.max(siguienteId, id + 1);
+            producto.setReloj(reloj);
+            if (productos.put(id, producto) != null) {
+                limpiar();
+                throw new IllegalArgumentException("ID repetido entre los productos recuperados: " + id);
+            }
+            if (!producto.isActivo()) {
+                continue;
+            }
+            
+            String clave = normalizarCodigo(producto.getCodigo());
+            if (clave != null && indiceCodigo.putIfAbsent(clave, id) != null) {
+                limpiar();
+                throw new IllegalArgumentException(
+                    "Código repetido entre los productos recuperados: " + producto.getCodigo());
+            }
+            producto.setColor(diccionarioColores.internar(producto.getColor()));
+            Huella huella = new Huella(producto, diccionarioColores.idDe(producto.getColor()),
+                    columnas.reservarSlot());
+            if (huella.codigo != null) {
+                indicePorCodigo.put(huella.codigo, producto);
+                if (huella.tipoTela != null) {
+                    indiceTipo.get(huella.tipoTela).put(huella.codigo, producto);
+                }
+            }
+            if (huella.nombreNormalizado != null) {
+                indiceNombre.agregar(id, huella.nombreNormalizado);
+            }
+            diccionarioColores.agregar(huella.colorId, id);
+            if (huella.stockBajo) {
+                indiceStockBajo.put(huella.claveStock(), producto);
+            }
+            huellas.put(id, huella);
+            columnas.escribir(huella.slot, producto);
+            activos++;
+        }
+        
+        idGenerator.accumulateAndGet(siguienteId, Math::max);
+        totalActivos.add(activos);
+    }
+
     @Override
     public Producto actualizar(Producto producto) {
         if (producto == null || producto.getId() == null) {
             throw new IllegalArgumentException("El producto y su ID no pueden ser null");
         }
         
-        if (!productos.containsKey(producto.getId())) {
-            throw new IllegalArgumentException("No existe el producto con ID: " + producto.getId());
+        synchronized (candado(producto.getId())) {
+            if (!productos.containsKey(producto.getId())) {
+                throw new IllegalArgumentException("No existe el producto con ID: " + producto.getId());
+            }
+            
+            reservarCodigo(producto);
+            producto.setReloj(reloj);
+            productos.put(producto.getId(), producto);
+            reindexar(producto);
         }
-        
-        productos.put(producto.getId(), producto);
         return producto;
     }
 
@@ -57,13 +254,207 @@ public class ProductoRepositoryImpl implements IProductoRepository {
             return false;
         }
         
-        Optional<Producto> producto = buscarPorId(id);
-        if (producto.isPresent()) {
-            producto.get().setActivo(false);
+        synchronized (candado(id)) {
+            Producto producto = productos.get(id);
+            if (producto == null) {
+                return false;
+            }
+            producto.setActivo(false);
+            reindexar(producto);
             return true;
         }
+    }
+
+    @Override
+    public Producto incrementarStock(Long id, int cantidad) {
+        return incrementarStock(idExistente(id), cantidad);
+    }
+
+    @Override
+    public Producto incrementarStock(long id, int cantidad) {
+        synchronized (candado(id)) {
+            Producto producto = obtenerExistente(id);
+            producto.incrementarStock(cantidad);
+            reindexarStock(producto);
+            return producto;
+        }
+    }
+
+    @Override
+    public Producto decrementarStock(Long id, int cantidad) {
+        return decrementarStock(idExistente(id), cantidad);
+    }
+
+    @Override
+    public Producto decrementarStock(long id, int cantidad) {
+        synchronized (candado(id)) {
+            Producto producto = obtenerExistente(id);
+            // Lanza IllegalStateException sin modificar nada si no alcanza el stock
+            producto.decrementarStock(cantidad);
+            reindexarStock(producto);
+            return producto;
+        }
+    }
+
+    @Override
+    public ResultadoStock intentarIncrementarStock(long id, int cantidad) {
+        synchronized (candado(id)) {
+            Producto producto = productos.get(id);
+            if (producto == null) {
+                return ResultadoStock.noEncontrado();
+            }
+            return reindexarSiExito(producto, producto.intentarIncrementarStock(cantidad));
+        }
+    }
+
+    @Override
+    public ResultadoStock intentarDecrementarStock(long id, int cantidad) {
+        synchronized (candado(id)) {
+            Producto producto = productos.get(id);
+            if (producto == null) {
+                return ResultadoStock.noEncontrado();
+            }
+            return reindexarSiExito(producto, producto.intentarDecrementarStock(cantidad));
+        }
+    }
+
+    private ResultadoStock reindexarSiExito(Producto producto, ResultadoStock resultado) {
+        if (resultado.isExitoso()) {
+            reindexarStock(producto);
+        }
+        return resultado;
+    }
+
+    private static long idExistente(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Producto no encontrado con ID: null");
+        }
+        return id;
+    }
+
+    private Producto obtenerExistente(long id) {
+        Producto producto = productos.get(id);
+        if (producto == null) {
+            throw new IllegalArgumentException("Producto no encontrado con ID: " + id);
+        }
+        return producto;
+    }
+
+    // Reserva atómica del código antes de tocar los índices; falla si lo tiene otro producto
+    private void reservarCodigo(Producto producto) {
+        String clave = normalizarCodigo(producto.getCodigo());
+        if (!producto.isActivo() || clave == null) {
+            return;
+        }
+        
+        Long idExistente = indiceCodigo.putIfAbsent(clave, producto.getId());
+        if (idExistente != null && !idExistente.equals(producto.getId())) {
+            throw new IllegalArgumentException(
+                "Ya existe un producto con el código: " + producto.getCodigo()
+            );
+        }
+    }
+
+    // Debe llamarse con el candado del producto tomado
+    private void reindexar(Producto producto) {
+        Long id = producto.getId();
+        // La huella se reemplaza (o se quita al final): buscarPorNombre la lee sin candado
+        Huella anterior = huellas.get(id);
+        Huella nueva = null;
+        if (producto.isActivo()) {
+            producto.setColor(diccionarioColores.internar(producto.getColor()));
+            // Un producto reactivado recibe un slot nuevo; el anterior queda inactivo
+            int slot = anterior != null ? anterior.slot : columnas.reservarSlot();
+            nueva = new Huella(producto, diccionarioColores.idDe(producto.getColor()), slot);
+        }
+        
+        // Primero la entrada nueva y después la anterior: un lector concurrente nunca deja de verlo
+        if (nueva != null) {
+            if (nueva.codigo != null) {
+                indicePorCodigo.put(nueva.codigo, producto);
+            }
+            if (nueva.codigo != null && nueva.tipoTela != null) {
+                indiceTipo.get(nueva.tipoTela).put(nueva.codigo, producto);
+            }
+            if (anterior == null || anterior.colorId != nueva.colorId) {
+                diccionarioColores.agregar(nueva.colorId, id);
+            }
+            if (nueva.stockBajo) {
+                indiceStockBajo.put(nueva.claveStock(), producto);
+            }
+        }
+        
+        if (anterior != null) {
+            if (anterior.clave != null && (nueva == null || !anterior.clave.equals(nueva.clave))) {
+                indiceCodigo.remove(anterior.clave, id);
+            }
+            if (anterior.codigo != null && (nueva == null || !anterior.codigo.equals(nueva.codigo))) {
+                quitarSiEsDe(indicePorCodigo, anterior.codigo, id);
+            }
+            if (anterior.codigo != null && anterior.tipoTela != null && (nueva == null
+                    || anterior.tipoTela != nueva.tipoTela || !anterior.codigo.equals(nueva.codigo))) {
+                quitarSiEsDe(indiceTipo.get(anterior.tipoTela), anterior.codigo, id);
+            }
+            if (anterior.nombreNormalizado != null && nueva == null) {
+                indiceNombre.quitar(id, anterior.nombreNormalizado);
+            }
+            if (nueva == null || anterior.colorId != nueva.colorId) {
+                diccionarioColores.quitar(anterior.colorId, id);
+            }
+            if (anterior.stockBajo && (nueva == null || !nueva.stockBajo
+                    || !anterior.claveStock().equals(nueva.claveStock()))) {
+                quitarSiEsDe(indiceStockBajo, anterior.claveStock(), id);
+            }
+        }
+        if (nueva != null) {
+            String nombreAnterior = anterior != null ? anterior.nombreNormalizado : null;
+            if (nombreAnterior == null) {
+                if (nueva.nombreNormalizado != null) {
+                    indiceNombre.agregar(id, nueva.nombreNormalizado);
+                }
+            } else if (nueva.nombreNormalizado == null) {
+                indiceNombre.quitar(id, nombreAnterior);
+            } else if (!nombreAnterior.equals(nueva.nombreNormalizado)) {
+                indiceNombre.reemplazar(id, nombreAnterior, nueva.nombreNormalizado);
+            }
+            huellas.put(id, nueva);
+            columnas.escribir(nueva.slot, producto);
+        } else if (anterior != null) {
+            huellas.remove(id);
+            columnas.desactivar(anterior.slot);
+        }
+        if ((anterior == null) != (nueva == null)) {
+            totalActivos.add(nueva != null ? 1 : -1);
+        }
+    }
+
+    // Movimiento de stock con el candado tomado: código, tipo, nombre y color no cambian, así que
+    // solo se tocan el índice de stock bajo y las columnas sobre la huella existente
+    private void reindexarStock(Producto producto) {
+        Huella huella = huellas.get(producto.getId());
+        if (huella == null || !producto.isActivo()) {
+            reindexar(producto);
+            return;
+        }
+        
+        ClaveStock claveAnterior = huella.stockBajo ? huella.claveStock() : null;
+        huella.stockActual = producto.getStockActual();
+        huella.stockBajo = producto.tieneStockBajo();
         
-        return false;
+        ClaveStock claveNueva = huella.stockBajo ? huella.claveStock() : null;
+        if (claveNueva != null) {
+            indiceStockBajo.put(claveNueva, producto);
+        }
+        if (claveAnterior != null && !claveAnterior.equals(claveNueva)) {
+            quitarSiEsDe(indiceStockBajo, claveAnterior, producto.getId());
+        }
+        columnas.escribir(huella.slot, producto);
+    }
+
+    // Los candados son por id: un producto borrado y otro recreado con su código se reindexan
+    // a la vez, así que solo se quita la entrada si sigue siendo de este producto
+    private static <K> void quitarSiEsDe(ConcurrentSkipListMap<K, Producto> indice, K clave, Long id) {
+        indice.computeIfPresent(clave, (k, actual) -> id.equals(actual.getId()) ? null : actual);
     }
 
     @Override
@@ -74,24 +465,76 @@ public class ProductoRepositoryImpl implements IProductoRepository {
         return Optional.ofNullable(productos.get(id));
     }
 
+    @Override
+    public Producto obtenerPorId(long id) {
+        return productos.get(id);
+    }
+
     @Override
     public Optional<Producto> buscarPorCodigo(String codigo) {
-        if (codigo == null || codigo.trim().isEmpty()) {
+        String clave = normalizarCodigo(codigo);
+        if (clave == null) {
             return Optional.empty();
         }
         
-        return productos.values().stream()
-                .filter(p -> p.isActivo())
-                .filter(p -> p.getCodigo().equalsIgnoreCase(codigo.trim()))
-                .findFirst();
+        Long id = indiceCodigo.get(clave);
+        if (id == null) {
+            return Optional.empty();
+        }
+        
+        Producto producto = productos.get(id);
+        return producto != null && producto.isActivo() ? Optional.of(producto) : Optional.empty();
     }
 
     @Override
     public List<Producto> obtenerTodos() {
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .sorted(Comparator.comparing(Producto::getCodigo))
-                .collect(Collectors.toList());
+        return new ArrayList<>(indicePorCodigo.values());
+    }
+
+    @Override
+    public List<Producto> obtenerTodosConInactivos() {
+        List<Producto> todos = new ArrayList<>(productos.size());
+        productos.forEachValue(todos::add);
+        return todos;
+    }
+
+    @Override
+    public PaginaProductos obtenerPagina(String despuesDeCodigo, int tamano) {
+        return paginar(indicePorCodigo, despuesDeCodigo, tamano);
+    }
+
+    @Override
+    public PaginaProductos obtenerPaginaPorTipo(TipoTela tipoTela, String despuesDeCodigo, int tamano) {
+        if (tipoTela == null) {
+            return new PaginaProductos(Collections.emptyList(), false);
+        }
+        return paginar(indiceTipo.get(tipoTela), despuesDeCodigo, tamano);
+    }
+
+    // Costo O(log n + tamano): se salta al cursor en la skip list y se leen los siguientes
+    private static PaginaProductos paginar(ConcurrentSkipListMap<String, Producto> indice,
+                                           String despuesDeCodigo, int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        NavigableMap<String, Producto> resto = despuesDeCodigo != null
+                ? indice.tailMap(despuesDeCodigo, false)
+                : indice;
+        
+        List<Producto> pagina = new ArrayList<>(Math.min(tamano, 1024));
+        for (Producto producto : resto.values()) {
+            if (pagina.size() == tamano) {
+                return new PaginaProductos(pagina, true);
+            }
+            pagina.add(producto);
+        }
+        return new PaginaProductos(pagina, false);
+    }
+
+    // Vista débilmente consistente en orden de código: admite escrituras concurrentes mientras se recorre
+    @Override
+    public Stream<Producto> streamActivos() {
+        return indicePorCodigo.values().stream();
     }
 
     @Override
@@ -100,20 +543,12 @@ public class ProductoRepositoryImpl implements IProductoRepository {
             return Collections.emptyList();
         }
         
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .filter(p -> p.getTipoTela() == tipoTela)
-                .sorted(Comparator.comparing(Producto::getCodigo))
-                .collect(Collectors.toList());
+        return new ArrayList<>(indiceTipo.get(tipoTela).values());
     }
 
     @Override
     public List<Producto> obtenerProductosConStockBajo() {
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .filter(Producto::tieneStockBajo)
-                .sorted(Comparator.comparing(Producto::getStockActual))
-                .collect(Collectors.toList());
+        return new ArrayList<>(indiceStockBajo.values());
     }
 
     @Override
@@ -122,13 +557,30 @@ public class ProductoRepositoryImpl implements IProductoRepository {
             return Collections.emptyList();
         }
         
-        String nombreBusqueda = nombre.trim().toLowerCase();
+        String nombreBusqueda = NormalizadorTexto.normalizar(nombre);
+        List<Producto> resultado = new ArrayList<>();
         
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .filter(p -> p.getNombre().toLowerCase().contains(nombreBusqueda))
-                .sorted(Comparator.comparing(Producto::getNombre))
-                .collect(Collectors.toList());
+        if (nombreBusqueda.length() < IndiceTrigramas.LONGITUD) {
+            huellas.forEach((id, huella) -> agregarSiContiene(resultado, id, huella, nombreBusqueda));
+        } else {
+            for (Long id : indiceNombre.candidatos(nombreBusqueda)) {
+                agregarSiContiene(resultado, id, huellas.get(id), nombreBusqueda);
+            }
+        }
+        
+        resultado.sort(Comparator.comparing(Producto::getNombre));
+        return resultado;
+    }
+
+    private void agregarSiContiene(List<Producto> resultado, Long id, Huella huella, String nombreBusqueda) {
+        if (huella == null || huella.nombreNormalizado == null
+                || !huella.nombreNormalizado.contains(nombreBusqueda)) {
+            return;
+        }
+        Producto producto = productos.get(id);
+        if (producto != null && producto.isActivo()) {
+            resultado.add(producto);
+        }
     }
 
     @Override
@@ -137,55 +589,80 @@ public class ProductoRepositoryImpl implements IProductoRepository {
             return Collections.emptyList();
         }
         
-        String colorBusqueda = color.trim().toLowerCase();
+        String colorBusqueda = NormalizadorTexto.normalizar(color);
+        List<Producto> resultado = new ArrayList<>();
+        
+        diccionarioColores.paraCadaColorQueContiene(colorBusqueda, colorId -> {
+            for (Long id : diccionarioColores.productosDe(colorId)) {
+                Producto producto = productos.get(id);
+                if (producto != null && producto.isActivo()) {
+                    resultado.add(producto);
+                }
+            }
+        });
+        
+        resultado.sort(Comparator.comparing(Producto::getCodigo));
+        return resultado;
+    }
+
+    @Override
+    public long contarPorColor(String color) {
+        if (color == null || color.trim().isEmpty()) {
+            return 0;
+        }
         
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .filter(p -> p.getColor().toLowerCase().contains(colorBusqueda))
-                .sorted(Comparator.comparing(Producto::getCodigo))
-                .collect(Collectors.toList());
+        long[] total = new long[1];
+        diccionarioColores.paraCadaColorQueContiene(NormalizadorTexto.normalizar(color),
+                colorId -> total[0] += diccionarioColores.productosDe(colorId).size());
+        return total[0];
     }
 
     @Override
     public long contarProductos() {
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .count();
+        return totalActivos.sum();
     }
 
     @Override
     public long contarProductosConStockBajo() {
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .filter(Producto::tieneStockBajo)
-                .count();
+        return columnas.contarStockBajo();
+    }
+
+    @Override
+    public long contarProductosCriticos() {
+        return columnas.contarCriticos();
     }
 
     @Override
     public boolean existePorCodigo(String codigo) {
-        if (codigo == null || codigo.trim().isEmpty()) {
-            return false;
-        }
-        
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .anyMatch(p -> p.getCodigo().equalsIgnoreCase(codigo.trim()));
+        return buscarPorCodigo(codigo).isPresent();
     }
 
     @Override
     public double calcularValorTotalInventario() {
-        return productos.values().stream()
-                .filter(Producto::isActivo)
-                .mapToDouble(Producto::getValorInventario)
-                .sum();
+        return columnas.valorTotal();
+    }
+
+    @Override
+    public Map<TipoTela, EstadisticasTipo> calcularEstadisticasPorTipo() {
+        return columnas.estadisticasPorTipo();
     }
     
+    // No debe invocarse con escrituras en curso
     public void limpiar() {
         productos.clear();
+        indiceCodigo.clear();
+        indicePorCodigo.clear();
+        indiceTipo.values().forEach(Map::clear);
+        indiceStockBajo.clear();
+        indiceNombre.limpiar();
+        diccionarioColores.limpiar();
+        huellas.clear();
+        columnas.limpiar();
+        totalActivos.reset();
         idGenerator.set(1);
     }
     
     public int tamano() {
         return productos.size();
     }
-}
\ No newline at end of file
+}
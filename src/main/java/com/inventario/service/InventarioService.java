@@ -1,84 +1,94 @@
 package com.inventario.service;
 
+import com.inventario.estadisticas.EstadisticasTipo;
+import com.inventario.estadisticas.TopK;
 import com.inventario.model.Producto;
 import com.inventario.model.TipoTela;
+import com.inventario.reporte.FormatoReporte;
+import com.inventario.reporte.GeneradorReporte;
+import com.inventario.reporte.ReporteTexto;
 import com.inventario.repository.IProductoRepository;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 
 public class InventarioService {
     
+    // A igual valor, primero el de código menor
+    private static final Comparator<Producto> POR_VALOR = Comparator
+            .comparingDouble(Producto::getValorInventario)
+            .thenComparing(Producto::getCodigo, Comparator.reverseOrder());
+    
     private final IProductoRepository repository;
+    // Versión de los cambios aplicados (ProductoService::getVersion); null desactiva la caché
+    private final LongSupplier versionCambios;
+    private volatile ResumenInventario resumenCacheado;
+    private volatile ReporteCacheado reporteCacheado;
 
     public InventarioService(IProductoRepository repository) {
-        this.repository = repository;
+        this(repository, null);
     }
 
-    public Map<String, Object> obtenerResumenInventario() {
-        Map<String, Object> resumen = new HashMap<>();
-        
-        long totalProductos = repository.contarProductos();
-        long productosStockBajo = repository.contarProductosConStockBajo();
-        double valorTotal = repository.calcularValorTotalInventario();
-        List<Producto> productosConStockBajo = repository.obtenerProductosConStockBajo();
-        
-        resumen.put("totalProductos", totalProductos);
-        resumen.put("productosStockBajo", productosStockBajo);
-        resumen.put("valorTotalInventario", valorTotal);
-        resumen.put("porcentajeStockBajo", 
-                    totalProductos > 0 ? (productosStockBajo * 100.0 / totalProductos) : 0);
-        resumen.put("listaProductosStockBajo", productosConStockBajo);
-        
-        return resumen;
+    // El resumen y el reporte se recalculan solo cuando cambia la versión.
+    // Las escrituras hechas directamente en el repositorio no la cambian
+    public InventarioService(IProductoRepository repository, LongSupplier versionCambios) {
+        this.repository = repository;
+        this.versionCambios = versionCambios;
     }
 
-    public Map<TipoTela, Map<String, Object>> obtenerEstadisticasPorTipo() {
-        Map<TipoTela, Map<String, Object>> estadisticas = new HashMap<>();
-        
-        for (TipoTela tipo : TipoTela.values()) {
-            List<Producto> productosTipo = repository.buscarPorTipo(tipo);
-            
-            if (!productosTipo.isEmpty()) {
-                Map<String, Object> stats = new HashMap<>();
-                stats.put("cantidad", productosTipo.size());
-                stats.put("stockTotal", calcularStockTotal(productosTipo));
-                stats.put("valorTotal", calcularValorTotal(productosTipo));
-                stats.put("precioPromedio", calcularPrecioPromedio(productosTipo));
-                
-                estadisticas.put(tipo, stats);
-            }
+    private static final class ReporteCacheado {
+        private final long version;
+        private final String texto;
+
+        private ReporteCacheado(long version, String texto) {
+            this.version = version;
+            this.texto = texto;
         }
-        
-        return estadisticas;
     }
 
-    private int calcularStockTotal(List<Producto> productos) {
-        return productos.stream()
-                .mapToInt(Producto::getStockActual)
-                .sum();
+    public ResumenInventario obtenerResumenInventario() {
+        if (versionCambios == null) {
+            return calcularResumen(-1);
+        }
+        
+        // La versión se lee antes de calcular: un cambio concurrente invalida el resultado
+        long version = versionCambios.getAsLong();
+        ResumenInventario cacheado = resumenCacheado;
+        if (cacheado != null && cacheado.getVersion() == version) {
+            return cacheado;
+        }
+        ResumenInventario resumen = calcularResumen(version);
+        resumenCacheado = resumen;
+        return resumen;
     }
 
-    private double calcularValorTotal(List<Producto> productos) {
-        return productos.stream()
-                .mapToDouble(Producto::getValorInventario)
-                .sum();
+    private ResumenInventario calcularResumen(long version) {
+        return new ResumenInventario(version,
+                repository.contarProductos(),
+                repository.contarProductosConStockBajo(),
+                repository.contarProductosCriticos(),
+                repository.calcularValorTotalInventario(),
+                repository.obtenerProductosConStockBajo());
     }
 
-    private double calcularPrecioPromedio(List<Producto> productos) {
-        return productos.stream()
-                .mapToDouble(Producto::getPrecio)
-                .average()
-                .orElse(0.0);
+    // Una pasada sobre el catálogo (o sus columnas) en lugar de una consulta y tres recorridos por tipo
+    public Map<TipoTela, EstadisticasTipo> obtenerEstadisticasPorTipo() {
+        return repository.calcularEstadisticasPorTipo();
     }
 
-
+    // Un recorrido con montículo acotado por partición en lugar de ordenar todo el catálogo
     public List<Producto> obtenerProductosMasValiosos(int top) {
-        return repository.obtenerTodos().stream()
-                .sorted((p1, p2) -> Double.compare(p2.getValorInventario(), p1.getValorInventario()))
-                .limit(top)
-                .toList();
+        if (top <= 0) {
+            return List.of();
+        }
+        try (Stream<Producto> productos = repository.streamActivos()) {
+            return productos.parallel().collect(TopK.mayores(top, POR_VALOR));
+        }
     }
 
 
@@ -89,43 +99,42 @@ public class InventarioService {
     }
 
     public double calcularPorcentajeCumplimientoStock() {
+        // Cumple quien no tiene stock bajo: dos conteos en lugar de recorrer el catálogo
         long total = repository.contarProductos();
-        long cumplimiento = repository.obtenerTodos().stream()
-                .filter(p -> p.getStockActual() > p.getStockMinimo())
-                .count();
+        long cumplimiento = total - repository.contarProductosConStockBajo();
         
         return total > 0 ? (cumplimiento * 100.0 / total) : 0;
     }
 
 
     public String generarReporteTexto() {
-        StringBuilder reporte = new StringBuilder();
-        Map<String, Object> resumen = obtenerResumenInventario();
-        
-        reporte.append(" _______________________________________________________________ \n");
-        reporte.append("           REPORTE DE INVENTARIO TEXTIL           \n");
-        reporte.append(" _______________________________________________________________ \n\n");
-        
-        reporte.append(String.format("Total de productos: %d\n", resumen.get("totalProductos")));
-        reporte.append(String.format("Productos con stock bajo: %d\n", resumen.get("productosStockBajo")));
-        reporte.append(String.format("Valor total del inventario: S/ %.2f\n", resumen.get("valorTotalInventario")));
-        reporte.append(String.format("Porcentaje stock bajo: %.2f%%\n\n", resumen.get("porcentajeStockBajo")));
-        
-        @SuppressWarnings("unchecked")
-        List<Producto> stockBajo = (List<Producto>) resumen.get("listaProductosStockBajo");
-        
-        if (!stockBajo.isEmpty()) {
-            reporte.append("PRODUCTOS CON STOCK BAJO:\n");
-            reporte.append(" _______________________________________________________________ \n");
-            for (Producto p : stockBajo) {
-                reporte.append(String.format("  %s - %s (Stock: %d/%d)\n",
-                        p.getCodigo(), p.getNombre(), 
-                        p.getStockActual(), p.getStockMinimo()));
-            }
+        if (versionCambios == null) {
+            return construirReporteTexto(obtenerResumenInventario());
         }
         
-        reporte.append("\n _______________________________________________________________ \n");
-        
+        ResumenInventario resumen = obtenerResumenInventario();
+        ReporteCacheado cacheado = reporteCacheado;
+        if (cacheado != null && cacheado.version == resumen.getVersion()) {
+            return cacheado.texto;
+        }
+        String texto = construirReporteTexto(resumen);
+        reporteCacheado = new ReporteCacheado(resumen.getVersion(), texto);
+        return texto;
+    }
+
+    private String construirReporteTexto(ResumenInventario resumen) {
+        StringBuilder reporte = new StringBuilder();
+        try {
+            new GeneradorReporte(new ReporteTexto()).escribir(resumen, reporte);
+        } catch (IOException e) {
+            // StringBuilder no lanza IOException
+            throw new UncheckedIOException(e);
+        }
         return reporte.toString();
     }
+
+    // Escribe el reporte por bloques en 'destino' sin construirlo entero en memoria
+    public void escribirReporte(Appendable destino, FormatoReporte formato) throws IOException {
+        new GeneradorReporte(formato).escribir(obtenerResumenInventario(), destino);
+    }
 }
\ No newline at end of file
@@ -1,46 +1,140 @@
 package com.inventario.service;
 
+import com.inventario.model.MovimientoStock;
 import com.inventario.model.Producto;
+import com.inventario.model.ResultadoStock;
+import com.inventario.model.TipoMovimiento;
 import com.inventario.model.TipoTela;
 import com.inventario.observer.IObservador;
+import com.inventario.observer.ObservadorAsincrono;
+import com.inventario.observer.PoliticaDesbordamiento;
+import com.inventario.persistencia.DiarioMovimientos;
+import com.inventario.persistencia.TipoRegistro;
 import com.inventario.repository.IProductoRepository;
+import com.inventario.repository.PaginaProductos;
 import com.inventario.strategy.IValidacionStrategy;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public class ProductoService {
     
     private final IProductoRepository repository;
     private final IValidacionStrategy validacionStrategy;
-    private final List<IObservador> observadores;
+    private final CopyOnWriteArrayList<IObservador> observadores;
+    private final DiarioMovimientos diario;
+    // Con diario, cada cambio y su registro se hacen bajo el candado del producto,
+    // así el orden del diario coincide con el orden en que se aplicaron
+    private final Object[] candados;
+    // Aumenta tras cada cambio aplicado; permite a los lectores saber si su caché sigue vigente
+    private final AtomicLong version;
+    
     public ProductoService(IProductoRepository repository, IValidacionStrategy validacionStrategy) {
+        this(repository, validacionStrategy, null);
+    }
+
+    public ProductoService(IProductoRepository repository, IValidacionStrategy validacionStrategy,
+                           DiarioMovimientos diario) {
         this.repository = repository;
         this.validacionStrategy = validacionStrategy;
-        this.observadores = new ArrayList<>();
+        this.observadores = new CopyOnWriteArrayList<>();
+        this.diario = diario;
+        this.version = new AtomicLong();
+        this.candados = new Object[64];
+        for (int i = 0; i < candados.length; i++) {
+            candados[i] = new Object();
+        }
+    }
+
+    private Object candado(long id) {
+        return candados[Long.hashCode(id) & (candados.length - 1)];
+    }
+
+    private Producto registrando(Long id, TipoRegistro tipo, Supplier<Producto> operacion) {
+        if (diario == null) {
+            Producto producto = operacion.get();
+            version.incrementAndGet();
+            return producto;
+        }
+        synchronized (id != null ? candado(id) : candados[0]) {
+            Producto producto = operacion.get();
+            diario.registrar(tipo, producto);
+            version.incrementAndGet();
+            return producto;
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
     }
 
     public void agregarObservador(IObservador observador) {
-        if (observador != null && !observadores.contains(observador)) {
-            observadores.add(observador);
+        if (observador != null) {
+            observadores.addIfAbsent(observador);
         }
     }
 
+    // El observador recibe los eventos en su propio hilo; las escrituras no esperan a que los procese
+    public void agregarObservadorAsincrono(IObservador observador, int capacidad, 
+                                           PoliticaDesbordamiento politica) {
+        if (observador == null) {
+            return;
+        }
+        agregarObservador(new ObservadorAsincrono(observador, capacidad, politica));
+    }
+
     public void removerObservador(IObservador observador) {
-        observadores.remove(observador);
+        for (IObservador registrado : observadores) {
+            if (registrado.equals(observador) || (registrado instanceof ObservadorAsincrono
+                    && ((ObservadorAsincrono) registrado).getDestino().equals(observador))) {
+                observadores.remove(registrado);
+                cerrarObservador(registrado);
+            }
+        }
+    }
+
+    // Despacha los eventos pendientes de los observadores asíncronos y libera sus recursos
+    public void cerrar() {
+        observadores.forEach(this::cerrarObservador);
+    }
+
+    private void cerrarObservador(IObservador observador) {
+        if (observador instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) observador).close();
+            } catch (Exception e) {
+                System.err.println("Error al cerrar observador: " + e.getMessage());
+            }
+        }
     }
 
     private void notificarProductoAgregado(Producto producto) {
         observadores.forEach(obs -> obs.onProductoAgregado(producto));
     }
 
+    // Bucles en lugar de lambdas: se llama en cada movimiento de stock
     private void notificarProductoActualizado(Producto producto) {
-        observadores.forEach(obs -> obs.onProductoActualizado(producto));
+        if (observadores.isEmpty()) {
+            return;
+        }
+        for (IObservador obs : observadores) {
+            obs.onProductoActualizado(producto);
+        }
         
         if (producto.getStockActual() == 0) {
-            observadores.forEach(obs -> obs.onStockCritico(producto));
+            for (IObservador obs : observadores) {
+                obs.onStockCritico(producto);
+            }
         } else if (producto.tieneStockBajo()) {
-            observadores.forEach(obs -> obs.onStockBajo(producto));
+            for (IObservador obs : observadores) {
+                obs.onStockBajo(producto);
+            }
         }
     }
 
@@ -51,17 +145,46 @@ public class ProductoService {
     public Producto crearProducto(Producto producto) {
         validacionStrategy.validar(producto);
         
-        Producto productoGuardado = repository.guardar(producto);
+        Producto productoGuardado = registrando(producto.getId(), TipoRegistro.CREACION,
+                () -> repository.guardar(producto));
         
         notificarProductoAgregado(productoGuardado);
         
         return productoGuardado;
     }
 
+    // Alta masiva de productos ya validados: sin notificación por producto.
+    // Los de código repetido no aparecen en el resultado
+    public List<Producto> crearProductosEnLote(List<Producto> productos) {
+        if (diario == null) {
+            List<Producto> guardados = repository.guardarTodos(productos);
+            version.incrementAndGet();
+            return guardados;
+        }
+
+        List<Producto> guardados = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            if (producto != null && producto.isActivo() && repository.existePorCodigo(producto.getCodigo())) {
+                continue;
+            }
+            try {
+                guardados.add(registrando(producto != null ? producto.getId() : null, TipoRegistro.CREACION,
+                        () -> repository.guardar(producto)));
+            } catch (IllegalArgumentException e) {
+                // Solo se omite el código registrado por otro hilo mientras tanto
+                if (producto == null || !repository.existePorCodigo(producto.getCodigo())) {
+                    throw e;
+                }
+            }
+        }
+        return guardados;
+    }
+
     public Producto actualizarProducto(Producto producto) {
         validacionStrategy.validar(producto);
         
-        Producto productoActualizado = repository.actualizar(producto);
+        Producto productoActualizado = registrando(producto.getId(), TipoRegistro.ACTUALIZACION,
+                () -> repository.actualizar(producto));
         
         notificarProductoActualizado(productoActualizado);
         
@@ -72,11 +195,18 @@ public class ProductoService {
         Optional<Producto> producto = repository.buscarPorId(id);
         
         if (producto.isPresent()) {
-            boolean eliminado = repository.eliminar(id);
-            if (eliminado) {
+            Producto eliminado = registrando(id, TipoRegistro.ELIMINACION, () -> {
+                if (!repository.eliminar(id)) {
+                    return null;
+                }
+                Producto estado = producto.get().copia();
+                estado.setActivo(false);
+                return estado;
+            });
+            if (eliminado != null) {
                 notificarProductoEliminado(producto.get());
             }
-            return eliminado;
+            return eliminado != null;
         }
         
         return false;
@@ -86,6 +216,11 @@ public class ProductoService {
         return repository.buscarPorId(id);
     }
 
+    // Consulta sin Long ni Optional para el camino caliente; null si no existe
+    public Producto obtenerPorId(long id) {
+        return repository.obtenerPorId(id);
+    }
+
     public Optional<Producto> buscarPorCodigo(String codigo) {
         return repository.buscarPorCodigo(codigo);
     }
@@ -94,6 +229,14 @@ public class ProductoService {
         return repository.obtenerTodos();
     }
 
+    public PaginaProductos obtenerPagina(String despuesDeCodigo, int tamano) {
+        return repository.obtenerPagina(despuesDeCodigo, tamano);
+    }
+
+    public PaginaProductos obtenerPaginaPorTipo(TipoTela tipoTela, String despuesDeCodigo, int tamano) {
+        return repository.obtenerPaginaPorTipo(tipoTela, despuesDeCodigo, tamano);
+    }
+
 
     public List<Producto> buscarPorTipo(TipoTela tipoTela) {
         return repository.buscarPorTipo(tipoTela);
@@ -108,30 +251,164 @@ public class ProductoService {
         return repository.buscarPorNombre(nombre);
     }
 
+    private Producto aplicarMovimiento(long id, int cantidad, TipoMovimiento tipo) {
+        if (diario == null) {
+            // Sin diario no hace falta el Supplier: el movimiento no reserva objetos
+            Producto producto = tipo == TipoMovimiento.ENTRADA
+                    ? repository.incrementarStock(id, cantidad)
+                    : repository.decrementarStock(id, cantidad);
+            version.incrementAndGet();
+            return producto;
+        }
+        return registrando(id, TipoRegistro.MOVIMIENTO_STOCK, () -> tipo == TipoMovimiento.ENTRADA
+                ? repository.incrementarStock(id, cantidad)
+                : repository.decrementarStock(id, cantidad));
+    }
+
+    private static long idNoNulo(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Producto no encontrado con ID: null");
+        }
+        return id;
+    }
+
     public Producto incrementarStock(Long id, int cantidad) {
-        Optional<Producto> productoOpt = repository.buscarPorId(id);
+        return incrementarStock(idNoNulo(id), cantidad);
+    }
+
+    public Producto decrementarStock(Long id, int cantidad) {
+        return decrementarStock(idNoNulo(id), cantidad);
+    }
+
+    public Producto incrementarStock(long id, int cantidad) {
+        Producto producto = aplicarMovimiento(id, cantidad, TipoMovimiento.ENTRADA);
         
-        if (productoOpt.isEmpty()) {
-            throw new IllegalArgumentException("Producto no encontrado con ID: " + id);
-        }
+        notificarProductoActualizado(producto);
         
-        Producto producto = productoOpt.get();
-        producto.incrementarStock(cantidad);
+        return producto;
+    }
+
+    public Producto decrementarStock(long id, int cantidad) {
+        Producto producto = aplicarMovimiento(id, cantidad, TipoMovimiento.SALIDA);
+        
+        notificarProductoActualizado(producto);
         
-        return actualizarProducto(producto);
+        return producto;
     }
 
-    public Producto decrementarStock(Long id, int cantidad) {
-        Optional<Producto> productoOpt = repository.buscarPorId(id);
+    // Sin excepciones ni notificación en el rechazo: el resultado dice si se aplicó y por qué no
+    public ResultadoStock intentarIncrementarStock(long id, int cantidad) {
+        return intentarMovimiento(id, cantidad, TipoMovimiento.ENTRADA);
+    }
+
+    public ResultadoStock intentarDecrementarStock(long id, int cantidad) {
+        return intentarMovimiento(id, cantidad, TipoMovimiento.SALIDA);
+    }
+
+    private ResultadoStock intentarMovimiento(long id, int cantidad, TipoMovimiento tipo) {
+        ResultadoStock resultado = aplicarIntento(id, cantidad, tipo);
+        if (resultado.isExitoso()) {
+            notificarProductoActualizado(resultado.getProducto());
+        }
+        return resultado;
+    }
+
+    private ResultadoStock aplicarIntento(long id, int cantidad, TipoMovimiento tipo) {
+        ResultadoStock resultado;
+        if (diario == null) {
+            resultado = intentarEnRepositorio(id, cantidad, tipo);
+            if (resultado.isExitoso()) {
+                version.incrementAndGet();
+            }
+        } else {
+            synchronized (candado(id)) {
+                resultado = intentarEnRepositorio(id, cantidad, tipo);
+                if (resultado.isExitoso()) {
+                    diario.registrar(TipoRegistro.MOVIMIENTO_STOCK, resultado.getProducto());
+                    version.incrementAndGet();
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private ResultadoStock intentarEnRepositorio(long id, int cantidad, TipoMovimiento tipo) {
+        return tipo == TipoMovimiento.ENTRADA
+                ? repository.intentarIncrementarStock(id, cantidad)
+                : repository.intentarDecrementarStock(id, cantidad);
+    }
+
+    public ReporteMovimientos registrarMovimientos(List<MovimientoStock> movimientos) {
+        List<ResultadoMovimiento> resultados = new ArrayList<>(movimientos.size());
+        Map<String, Producto> productosPorCodigo = new HashMap<>();
+        Map<Long, Producto> afectados = new LinkedHashMap<>();
         
-        if (productoOpt.isEmpty()) {
-            throw new IllegalArgumentException("Producto no encontrado con ID: " + id);
+        int linea = 0;
+        for (MovimientoStock movimiento : movimientos) {
+            linea++;
+            String rechazo = validarMovimiento(movimiento);
+            if (rechazo != null) {
+                resultados.add(ResultadoMovimiento.rechazado(linea, movimiento, rechazo));
+                continue;
+            }
+            
+            String codigo = movimiento.getCodigoProducto().trim();
+            Producto producto = productosPorCodigo.computeIfAbsent(codigo,
+                    c -> repository.buscarPorCodigo(c).orElse(null));
+            if (producto == null) {
+                resultados.add(ResultadoMovimiento.rechazado(linea, movimiento, 
+                        "Producto no encontrado: " + codigo));
+                continue;
+            }
+            
+            ResultadoStock resultado = aplicarIntento(producto.getId(), movimiento.getCantidad(),
+                                                      movimiento.getTipo());
+            if (resultado.isExitoso()) {
+                afectados.put(producto.getId(), resultado.getProducto());
+                resultados.add(ResultadoMovimiento.exitoso(linea, movimiento, resultado.getDisponible()));
+            } else {
+                resultados.add(ResultadoMovimiento.rechazado(linea, movimiento,
+                        motivoRechazo(resultado, producto.getId(), movimiento.getCantidad())));
+            }
         }
         
-        Producto producto = productoOpt.get();
-        producto.decrementarStock(cantidad);
+        // Una sola ronda de notificaciones por producto afectado, con su estado final
+        afectados.values().forEach(this::notificarProductoActualizado);
         
-        return actualizarProducto(producto);
+        return new ReporteMovimientos(resultados);
+    }
+
+    // Mismos textos que las excepciones de las variantes que lanzan
+    private static String motivoRechazo(ResultadoStock resultado, long id, int cantidad) {
+        switch (resultado.getEstado()) {
+            case NO_ENCONTRADO:
+                return "Producto no encontrado con ID: " + id;
+            case STOCK_INSUFICIENTE:
+                return String.format("Stock insuficiente. Disponible: %d, Solicitado: %d",
+                                     resultado.getDisponible(), cantidad);
+            default:
+                return "La cantidad debe ser positiva";
+        }
+    }
+
+    private String validarMovimiento(MovimientoStock movimiento) {
+        if (movimiento == null) {
+            return "El movimiento no puede ser null";
+        }
+        if (movimiento.getCodigoProducto() == null || movimiento.getCodigoProducto().trim().isEmpty()) {
+            return "El código del producto es obligatorio";
+        }
+        if (movimiento.getTipo() == null) {
+            return "El tipo de movimiento es obligatorio";
+        }
+        if (movimiento.getCantidad() < 0) {
+            return "La cantidad debe ser positiva";
+        }
+        return null;
+    }
+
+    public IValidacionStrategy getValidacionStrategy() {
+        return validacionStrategy;
     }
 
     public boolean existePorCodigo(String codigo) {
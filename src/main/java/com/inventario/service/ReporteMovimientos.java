@@ -0,0 +1,37 @@
+package com.inventario.service;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ReporteMovimientos {
+
+    private final List<ResultadoMovimiento> resultados;
+    private final int exitosos;
+
+    ReporteMovimientos(List<ResultadoMovimiento> resultados) {
+        this.resultados = Collections.unmodifiableList(resultados);
+        int total = 0;
+        for (ResultadoMovimiento resultado : resultados) {
+            if (resultado.isExitoso()) {
+                total++;
+            }
+        }
+        this.exitosos = total;
+    }
+
+    public List<ResultadoMovimiento> getResultados() {
+        return resultados;
+    }
+
+    public int getTotal() {
+        return resultados.size();
+    }
+
+    public int getExitosos() {
+        return exitosos;
+    }
+
+    public int getRechazados() {
+        return resultados.size() - exitosos;
+    }
+}
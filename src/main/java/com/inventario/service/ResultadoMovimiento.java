@@ -0,0 +1,55 @@
+package com.inventario.service;
+
+import com.inventario.model.MovimientoStock;
+
+public class ResultadoMovimiento {
+
+    private final int linea;
+    private final MovimientoStock movimiento;
+    private final boolean exitoso;
+    private final String mensaje;
+    private final int stockResultante;
+
+    private ResultadoMovimiento(int linea, MovimientoStock movimiento, boolean exitoso,
+                                String mensaje, int stockResultante) {
+        this.linea = linea;
+        this.movimiento = movimiento;
+        this.exitoso = exitoso;
+        this.mensaje = mensaje;
+        this.stockResultante = stockResultante;
+    }
+
+    static ResultadoMovimiento exitoso(int linea, MovimientoStock movimiento, int stockResultante) {
+        return new ResultadoMovimiento(linea, movimiento, true, "OK", stockResultante);
+    }
+
+    static ResultadoMovimiento rechazado(int linea, MovimientoStock movimiento, String motivo) {
+        return new ResultadoMovimiento(linea, movimiento, false, motivo, -1);
+    }
+
+    public int getLinea() {
+        return linea;
+    }
+
+    public MovimientoStock getMovimiento() {
+        return movimiento;
+    }
+
+    public boolean isExitoso() {
+        return exitoso;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public int getStockResultante() {
+        return stockResultante;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Línea %d: %s - %s", linea, exitoso ? "OK" : "RECHAZADO", 
+                exitoso ? "stock " + stockResultante : mensaje);
+    }
+}
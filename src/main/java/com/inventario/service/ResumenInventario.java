@@ -0,0 +1,54 @@
+package com.inventario.service;
+
+import com.inventario.model.Producto;
+import java.util.Collections;
+import java.util.List;
+
+// Foto inmutable del resumen; 'version' es la del ProductoService cuando se calculó
+public final class ResumenInventario {
+
+    private final long version;
+    private final long totalProductos;
+    private final long productosStockBajo;
+    private final long productosCriticos;
+    private final double valorTotalInventario;
+    private final List<Producto> productosConStockBajo;
+
+    ResumenInventario(long version, long totalProductos, long productosStockBajo, long productosCriticos,
+                      double valorTotalInventario, List<Producto> productosConStockBajo) {
+        this.version = version;
+        this.totalProductos = totalProductos;
+        this.productosStockBajo = productosStockBajo;
+        this.productosCriticos = productosCriticos;
+        this.valorTotalInventario = valorTotalInventario;
+        this.productosConStockBajo = Collections.unmodifiableList(productosConStockBajo);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTotalProductos() {
+        return totalProductos;
+    }
+
+    public long getProductosStockBajo() {
+        return productosStockBajo;
+    }
+
+    public long getProductosCriticos() {
+        return productosCriticos;
+    }
+
+    public double getValorTotalInventario() {
+        return valorTotalInventario;
+    }
+
+    public double getPorcentajeStockBajo() {
+        return totalProductos > 0 ? (productosStockBajo * 100.0 / totalProductos) : 0;
+    }
+
+    public List<Producto> getProductosConStockBajo() {
+        return productosConStockBajo;
+    }
+}
@@ -1,9 +1,37 @@
 package com.inventario.strategy;
 
 import com.inventario.model.Producto;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 public interface IValidacionStrategy { 
+    // Lanza IllegalArgumentException con la primera regla incumplida
     boolean validar(Producto producto);
     String getNombreEstrategia();
     String getDescripcionReglas();
-}
\ No newline at end of file
+
+    // Reglas compiladas de la estrategia: validar sin excepciones y con todas las violaciones.
+    // Las estrategias que no lo redefinen se envuelven en una sola regla sobre validar(Producto),
+    // con un mensaje genérico en lugar del de la excepción
+    default MotorValidacion getMotor() {
+        String mensaje = "Producto rechazado por la estrategia " + getNombreEstrategia();
+        return new MotorValidacion.Builder()
+                .conRegla(producto -> {
+                    try {
+                        return validar(producto);
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }, mensaje)
+                .build();
+    }
+
+    default boolean validar(Producto producto, ResultadoValidacion resultado) {
+        return getMotor().validar(producto, resultado);
+    }
+
+    default List<Producto> validarLote(List<Producto> productos,
+                                       BiConsumer<Producto, ResultadoValidacion> rechazados) {
+        return getMotor().validarLote(productos, rechazados);
+    }
+}
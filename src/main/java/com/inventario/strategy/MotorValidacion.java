@@ -0,0 +1,105 @@
+package com.inventario.strategy;
+
+import com.inventario.model.Producto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/*
+ * Reglas de validación compuestas una sola vez en arreglos, en orden de evaluación.
+ * Cada regla es un predicado que se cumple o aporta su mensaje (constante): validar no lanza
+ * excepciones ni reserva objetos. Las reglas sobre un campo ausente se dan por cumplidas,
+ * así un código vacío solo informa "obligatorio" y no también su longitud o formato.
+ */
+public final class MotorValidacion {
+
+    static final String PRODUCTO_NULL = "El producto no puede ser null";
+
+    private final Predicate<Producto>[] reglas;
+    private final String[] mensajes;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private MotorValidacion(List<Predicate<Producto>> reglas, List<String> mensajes) {
+        this.reglas = reglas.toArray(new Predicate[0]);
+        this.mensajes = mensajes.toArray(new String[0]);
+    }
+
+    // Se detiene en la primera regla incumplida; null si el producto es válido
+    public String primeraViolacion(Producto producto) {
+        if (producto == null) {
+            return PRODUCTO_NULL;
+        }
+        for (int i = 0; i < reglas.length; i++) {
+            if (!reglas[i].test(producto)) {
+                return mensajes[i];
+            }
+        }
+        return null;
+    }
+
+    // Evalúa todas las reglas y deja en 'resultado' cada incumplimiento
+    public boolean validar(Producto producto, ResultadoValidacion resultado) {
+        resultado.reiniciar(producto);
+        if (producto == null) {
+            resultado.agregar(PRODUCTO_NULL);
+            return false;
+        }
+        for (int i = 0; i < reglas.length; i++) {
+            if (!reglas[i].test(producto)) {
+                resultado.agregar(mensajes[i]);
+            }
+        }
+        return resultado.esValido();
+    }
+
+    // Devuelve los válidos; cada rechazado se entrega con un resultado que se reutiliza para el siguiente
+    public List<Producto> validarLote(List<Producto> productos,
+                                      BiConsumer<Producto, ResultadoValidacion> rechazados) {
+        List<Producto> validos = new ArrayList<>(productos.size());
+        ResultadoValidacion resultado = new ResultadoValidacion();
+        for (Producto producto : productos) {
+            if (validar(producto, resultado)) {
+                validos.add(producto);
+            } else {
+                rechazados.accept(producto, resultado);
+            }
+        }
+        return validos;
+    }
+
+    public int cantidadReglas() {
+        return reglas.length;
+    }
+
+    public static class Builder {
+
+        private final List<Predicate<Producto>> reglas = new ArrayList<>();
+        private final List<String> mensajes = new ArrayList<>();
+
+        public Builder conRegla(Predicate<Producto> regla, String mensaje) {
+            if (regla == null || mensaje == null) {
+                throw new IllegalArgumentException("La regla y su mensaje son obligatorios");
+            }
+            reglas.add(regla);
+            mensajes.add(mensaje);
+            return this;
+        }
+
+        // Agrega las reglas de otro motor, en su mismo orden
+        public Builder conReglas(MotorValidacion otro) {
+            for (int i = 0; i < otro.reglas.length; i++) {
+                conRegla(otro.reglas[i], otro.mensajes[i]);
+            }
+            return this;
+        }
+
+        public MotorValidacion build() {
+            return new MotorValidacion(reglas, mensajes);
+        }
+    }
+
+    static boolean vacio(String texto) {
+        return texto == null || texto.trim().isEmpty();
+    }
+}
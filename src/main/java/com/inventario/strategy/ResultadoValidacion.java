@@ -0,0 +1,44 @@
+package com.inventario.strategy;
+
+import com.inventario.model.Producto;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Violaciones de una validación. Reutilizable: cada validación lo limpia antes de llenarlo
+public class ResultadoValidacion {
+
+    private final List<String> violaciones = new ArrayList<>();
+    private final List<String> vista = Collections.unmodifiableList(violaciones);
+    private Producto producto;
+
+    void reiniciar(Producto producto) {
+        this.producto = producto;
+        violaciones.clear();
+    }
+
+    void agregar(String violacion) {
+        violaciones.add(violacion);
+    }
+
+    public boolean esValido() {
+        return violaciones.isEmpty();
+    }
+
+    public Producto getProducto() {
+        return producto;
+    }
+
+    // Vista de solo lectura; cambia con la siguiente validación
+    public List<String> getViolaciones() {
+        return vista;
+    }
+
+    public String getPrimeraViolacion() {
+        return violaciones.isEmpty() ? null : violaciones.get(0);
+    }
+
+    public String getMensaje() {
+        return String.join("; ", violaciones);
+    }
+}
@@ -4,43 +4,36 @@ import com.inventario.model.Producto;
 
 public class ValidacionBasicaStrategy implements IValidacionStrategy {
 
+    static final MotorValidacion REGLAS = new MotorValidacion.Builder()
+            .conRegla(p -> !MotorValidacion.vacio(p.getCodigo()),
+                    "El código del producto es obligatorio")
+            .conRegla(p -> MotorValidacion.vacio(p.getCodigo())
+                            || (p.getCodigo().length() >= 3 && p.getCodigo().length() <= 20),
+                    "El código debe tener entre 3 y 20 caracteres")
+            .conRegla(p -> !MotorValidacion.vacio(p.getNombre()),
+                    "El nombre del producto es obligatorio")
+            .conRegla(p -> MotorValidacion.vacio(p.getNombre()) || p.getNombre().length() >= 3,
+                    "El nombre debe tener al menos 3 caracteres")
+            .conRegla(p -> p.getPrecio() > 0,
+                    "El precio debe ser mayor a 0")
+            .conRegla(p -> p.getTipoTela() != null,
+                    "El tipo de tela es obligatorio")
+            .build();
+
     @Override
     public boolean validar(Producto producto) {
-        if (producto == null) {
-            throw new IllegalArgumentException("El producto no puede ser null");
-        }
-        
-        if (producto.getCodigo() == null || producto.getCodigo().trim().isEmpty()) {
-            throw new IllegalArgumentException("El código del producto es obligatorio");
-        }
-        
-        if (producto.getCodigo().length() < 3 || producto.getCodigo().length() > 20) {
-            throw new IllegalArgumentException(
-                "El código debe tener entre 3 y 20 caracteres"
-            );
-        }
-        
-        if (producto.getNombre() == null || producto.getNombre().trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre del producto es obligatorio");
-        }
-        
-        if (producto.getNombre().length() < 3) {
-            throw new IllegalArgumentException(
-                "El nombre debe tener al menos 3 caracteres"
-            );
+        String violacion = REGLAS.primeraViolacion(producto);
+        if (violacion != null) {
+            throw new IllegalArgumentException(violacion);
         }
-        
-        if (producto.getPrecio() <= 0) {
-            throw new IllegalArgumentException("El precio debe ser mayor a 0");
-        }
-        
-        if (producto.getTipoTela() == null) {
-            throw new IllegalArgumentException("El tipo de tela es obligatorio");
-        }
-        
         return true;
     }
 
+    @Override
+    public MotorValidacion getMotor() {
+        return REGLAS;
+    }
+
     @Override
     public String getNombreEstrategia() {
         return "Validación Básica";
@@ -51,4 +44,4 @@ public class ValidacionBasicaStrategy implements IValidacionStrategy {
         return "Valida campos obligatorios: código (3-20 chars), nombre (min 3 chars), " +
                "precio (>0) y tipo de tela";
     }
-}
\ No newline at end of file
+}
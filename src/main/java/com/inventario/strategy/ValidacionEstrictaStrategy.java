@@ -4,55 +4,51 @@ import com.inventario.model.Producto;
 
 public class ValidacionEstrictaStrategy implements IValidacionStrategy {
     
-    private final IValidacionStrategy validacionBasica = new ValidacionBasicaStrategy();
+    // Las reglas básicas primero: la primera violación es la misma que antes
+    private static final MotorValidacion REGLAS = new MotorValidacion.Builder()
+            .conReglas(ValidacionBasicaStrategy.REGLAS)
+            .conRegla(p -> MotorValidacion.vacio(p.getCodigo()) || soloMayusculasYDigitos(p.getCodigo()),
+                    "El código debe contener solo letras mayúsculas y números (sin espacios ni caracteres especiales)")
+            .conRegla(p -> !MotorValidacion.vacio(p.getColor()),
+                    "El color es obligatorio en validación estricta")
+            .conRegla(p -> p.getPrecio() <= 1000,
+                    "El precio parece excesivo. Verifique que sea correcto (máximo: S/ 1000)")
+            // Un precio no positivo ya lo informa la regla básica
+            .conRegla(p -> p.getPrecio() <= 0 || p.getPrecio() >= 1,
+                    "El precio parece muy bajo. Mínimo: S/ 1.00")
+            .conRegla(p -> p.getStockMinimo() >= 1,
+                    "El stock mínimo debe ser al menos 1 en validación estricta")
+            .conRegla(p -> p.getStockActual() <= 10000,
+                    "El stock actual parece excesivo. Verifique el valor (máximo: 10,000)")
+            .conRegla(p -> p.getStockActual() <= 0 || p.getStockMinimo() <= p.getStockActual() * 2,
+                    "El stock mínimo no puede ser más del doble del stock actual")
+            .build();
+
+    // Equivale a matches("^[A-Z0-9]+$") sin compilar una expresión regular en cada llamada
+    private static boolean soloMayusculasYDigitos(String codigo) {
+        for (int i = 0; i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if ((c < 'A' || c > 'Z') && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return !codigo.isEmpty();
+    }
 
     @Override
     public boolean validar(Producto producto) {
-        validacionBasica.validar(producto);
-
-        if (!producto.getCodigo().matches("^[A-Z0-9]+$")) {
-            throw new IllegalArgumentException(
-                "El código debe contener solo letras mayúsculas y números (sin espacios ni caracteres especiales)"
-            );
-        }
-        
-        if (producto.getColor() == null || producto.getColor().trim().isEmpty()) {
-            throw new IllegalArgumentException("El color es obligatorio en validación estricta");
-        }
-        
-        if (producto.getPrecio() > 1000) {
-            throw new IllegalArgumentException(
-                "El precio parece excesivo. Verifique que sea correcto (máximo: S/ 1000)"
-            );
-        }
-        
-        if (producto.getPrecio() < 1) {
-            throw new IllegalArgumentException(
-                "El precio parece muy bajo. Mínimo: S/ 1.00"
-            );
+        String violacion = REGLAS.primeraViolacion(producto);
+        if (violacion != null) {
+            throw new IllegalArgumentException(violacion);
         }
-        
-        if (producto.getStockMinimo() < 1) {
-            throw new IllegalArgumentException(
-                "El stock mínimo debe ser al menos 1 en validación estricta"
-            );
-        }
-        
-        if (producto.getStockActual() > 10000) {
-            throw new IllegalArgumentException(
-                "El stock actual parece excesivo. Verifique el valor (máximo: 10,000)"
-            );
-        }
-        
-        if (producto.getStockActual() > 0 && producto.getStockMinimo() > producto.getStockActual() * 2) {
-            throw new IllegalArgumentException(
-                "El stock mínimo no puede ser más del doble del stock actual"
-            );
-        }
-        
         return true;
     }
 
+    @Override
+    public MotorValidacion getMotor() {
+        return REGLAS;
+    }
+
     @Override
     public String getNombreEstrategia() {
         return "Validación Estricta";
@@ -64,4 +60,4 @@ public class ValidacionEstrictaStrategy implements IValidacionStrategy {
                "mayúsculas, color obligatorio, rangos de precio (S/ 1-1000), " +
                "stock mínimo ≥1, stock actual ≤10000, coherencia stock actual/mínimo";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+package com.inventario.persistencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import com.inventario.repository.IProductoRepository;
+import com.inventario.repository.ProductoRepositoryH2;
+import com.inventario.repository.ProductoRepositoryImpl;
+import com.inventario.service.ProductoService;
+import com.inventario.strategy.ValidacionBasicaStrategy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecuperacionInventarioTest {
+
+    @TempDir
+    Path directorio;
+
+    private final AtomicLong tiempo = new AtomicLong(1_700_000_000_000L);
+
+    private Producto producto(int i, TipoTela tipo, String color) {
+        return new Producto("COD" + i, "Tela " + i, tipo, color, 10.5 + i, 20, 5, tiempo::incrementAndGet);
+    }
+
+    // Altas, movimientos, una edición y una baja: antes y después de la instantánea
+    private Map<Long, String> poblar(IProductoRepository repository) throws IOException {
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, repository, false)) {
+            ProductoService servicio = new ProductoService(repository, new ValidacionBasicaStrategy(),
+                                                           persistencia.getDiario());
+            for (int i = 1; i <= 6; i++) {
+                servicio.crearProducto(producto(i, TipoTela.values()[i % 3], i % 2 == 0 ? "Azul" : null));
+            }
+            servicio.decrementarStock(1L, 18);
+            servicio.eliminarProducto(2L);
+            persistencia.tomarInstantanea(repository);
+
+            servicio.incrementarStock(3L, 7);
+            servicio.decrementarStock(4L, 20);
+            Producto editado = repository.obtenerPorId(5L).copia();
+            editado.setNombre("Seda editada");
+            editado.setTipoTela(TipoTela.SEDA);
+            editado.setColor("Rojo");
+            servicio.actualizarProducto(editado);
+            servicio.eliminarProducto(6L);
+            servicio.crearProducto(producto(7, TipoTela.LINO, "Verde"));
+        }
+        return estado(repository);
+    }
+
+    private static Map<Long, String> estado(IProductoRepository repository) {
+        Map<Long, String> estado = new TreeMap<>();
+        for (Producto producto : repository.obtenerTodosConInactivos()) {
+            estado.put(producto.getId(), producto + " creado=" + producto.getFechaCreacionMillis()
+                    + " actualizado=" + producto.getFechaActualizacionMillis());
+        }
+        return estado;
+    }
+
+    @Test
+    void recuperaInstantaneaMasDiarioConInactivosYContinuaLosIds() throws IOException {
+        Map<Long, String> esperado = poblar(new ProductoRepositoryImpl(tiempo::incrementAndGet));
+
+        ProductoRepositoryImpl recuperado = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, recuperado, false)) {
+            assertEquals(esperado, estado(recuperado));
+            assertEquals(5, recuperado.contarProductos());
+            assertFalse(recuperado.buscarPorId(2L).orElseThrow().isActivo());
+            assertFalse(recuperado.existePorCodigo("COD6"));
+
+            Producto nuevo = recuperado.guardar(producto(8, TipoTela.LANA, null));
+            assertEquals(8L, nuevo.getId());
+        }
+    }
+
+    @Test
+    void recuperaSoloDesdeElDiarioSinInstantanea() throws IOException {
+        ProductoRepositoryImpl original = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, original, false)) {
+            ProductoService servicio = new ProductoService(original, new ValidacionBasicaStrategy(),
+                                                           persistencia.getDiario());
+            servicio.crearProducto(producto(1, TipoTela.DENIM, "Negro"));
+            servicio.crearProducto(producto(2, TipoTela.DENIM, "Negro"));
+            servicio.incrementarStock(2L, 3);
+            servicio.eliminarProducto(1L);
+        }
+
+        ProductoRepositoryImpl recuperado = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, recuperado, false)) {
+            assertEquals(estado(original), estado(recuperado));
+            assertEquals(23, recuperado.obtenerPorId(2L).getStockActual());
+        }
+    }
+
+    @Test
+    void descartaLaColaIncompletaDelDiario() throws IOException {
+        Map<Long, String> esperado = poblar(new ProductoRepositoryImpl(tiempo::incrementAndGet));
+        Path ultimo;
+        try (Stream<Path> segmentos = Files.list(directorio.resolve("diario"))) {
+            ultimo = segmentos.sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        // Un registro cortado a mitad de escritura
+        Files.write(ultimo, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        ProductoRepositoryImpl recuperado = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, recuperado, false)) {
+            assertEquals(esperado, estado(recuperado));
+            ProductoService servicio = new ProductoService(recuperado, new ValidacionBasicaStrategy(),
+                                                           persistencia.getDiario());
+            servicio.incrementarStock(3L, 1);
+        }
+
+        ProductoRepositoryImpl otraVez = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, otraVez, false)) {
+            assertEquals(28, otraVez.obtenerPorId(3L).getStockActual());
+        }
+    }
+
+    @Test
+    void recuperaEnH2YLaIdentidadSigueDespuesDelMaximo() throws IOException {
+        Map<Long, String> esperado = poblar(new ProductoRepositoryImpl(tiempo::incrementAndGet));
+
+        ProductoRepositoryH2 recuperado = new ProductoRepositoryH2(
+                "jdbc:h2:mem:recuperacion;DB_CLOSE_DELAY=-1", "sa", "", tiempo::incrementAndGet);
+        try (GestorPersistencia persistencia = GestorPersistencia.abrir(directorio, recuperado, false)) {
+            assertEquals(esperado, estado(recuperado));
+            assertEquals(8L, recuperado.guardar(producto(8, TipoTela.NYLON, null)).getId());
+        }
+    }
+
+    @Test
+    void instantaneaConservaTodosLosCampos() throws IOException {
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            Producto producto = producto(i, TipoTela.values()[i % TipoTela.values().length],
+                                         i % 3 == 0 ? null : "Color " + (i % 4));
+            producto.setId((long) i * 3);
+            producto.setActivo(i % 5 != 0);
+            productos.add(producto);
+        }
+        Path archivo = directorio.resolve("inventario.snap");
+        Instantanea.escribir(archivo, 42, productos);
+
+        List<Producto> leidos = new ArrayList<>();
+        assertEquals(42, Instantanea.leer(archivo, leidos::add));
+        assertEquals(productos.size(), leidos.size());
+        for (int i = 0; i < productos.size(); i++) {
+            Producto original = productos.get(i);
+            Producto leido = leidos.get(i);
+            assertEquals(original.toString(), leido.toString());
+            assertEquals(original.getFechaCreacionMillis(), leido.getFechaCreacionMillis());
+            assertEquals(original.getFechaActualizacionMillis(), leido.getFechaActualizacionMillis());
+        }
+    }
+
+    @Test
+    void rechazaInstantaneaConDesplazamientosFueraDeRango() throws IOException {
+        Path archivo = directorio.resolve("inventario.snap");
+        Producto producto = producto(1, TipoTela.LINO, "Azul");
+        producto.setId(1L);
+        Instantanea.escribir(archivo, 1, List.of(producto));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            // Longitud total de la cabecera v2 (byte 52), mucho mayor que el archivo
+            canal.write(ByteBuffer.allocate(8).putLong(0, Long.MAX_VALUE / 2), 52);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> Instantanea.leer(archivo, p -> { }));
+        assertTrue(error.getMessage().contains("fuera de rango"), error.getMessage());
+    }
+
+    @Test
+    void rechazaIdsRepetidosEnLaCargaMasiva() {
+        Producto a = producto(1, TipoTela.LINO, "Azul");
+        Producto b = producto(2, TipoTela.LINO, "Azul");
+        a.setId(1L);
+        b.setId(1L);
+        ProductoRepositoryImpl repository = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.cargarRecuperados(List.of(a, b)));
+        assertEquals(0, repository.contarProductos());
+        assertTrue(repository.obtenerTodosConInactivos().isEmpty());
+    }
+}
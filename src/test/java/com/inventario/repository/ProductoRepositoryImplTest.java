@@ -0,0 +1,241 @@
+package com.inventario.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.inventario.estadisticas.EstadisticasTipo;
+import com.inventario.model.Producto;
+import com.inventario.model.TipoTela;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+// Cada consulta servida por un índice o por las columnas debe coincidir con un recorrido de los productos
+class ProductoRepositoryImplTest {
+
+    private static final String[] NOMBRES = {"Algodón peinado", "Seda natural", "Lino rústico", "Denim azul",
+                                             "Lana merino", "Poliéster liso"};
+    private static final String[] COLORES = {"Azul", "Azul marino", "Rojo", "Blanco", null, "Verde agua"};
+    private static final String[] BUSQUEDAS = {"al", "algodon", "seda", "lino", "azul", "merino", "xyz"};
+
+    private final AtomicLong tiempo = new AtomicLong(1_700_000_000_000L);
+    private final ProductoRepositoryImpl repository = new ProductoRepositoryImpl(tiempo::incrementAndGet);
+
+    private Producto aleatorio(Random random, String codigo) {
+        TipoTela[] tipos = TipoTela.values();
+        return new Producto(codigo, NOMBRES[random.nextInt(NOMBRES.length)] + " " + random.nextInt(50),
+                            tipos[random.nextInt(tipos.length)], COLORES[random.nextInt(COLORES.length)],
+                            1 + random.nextInt(10_000) / 100.0, random.nextInt(30), random.nextInt(10),
+                            tiempo::incrementAndGet);
+    }
+
+    private static Set<Long> ids(List<Producto> productos) {
+        return productos.stream().map(Producto::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Set<Long> ids(List<Producto> productos, java.util.function.Predicate<Producto> filtro) {
+        return productos.stream().filter(filtro).map(Producto::getId)
+                        .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void verificarIndices() {
+        List<Producto> activos = new ArrayList<>();
+        for (Producto producto : repository.obtenerTodosConInactivos()) {
+            if (producto.isActivo()) {
+                activos.add(producto);
+            }
+        }
+        activos.sort(Comparator.comparing(Producto::getCodigo));
+
+        assertEquals(activos.size(), repository.contarProductos());
+        assertEquals(ids(activos), ids(repository.obtenerTodos()));
+        for (Producto producto : activos) {
+            assertEquals(producto.getId(), repository.buscarPorCodigo(producto.getCodigo()).orElseThrow().getId());
+            assertTrue(repository.existePorCodigo(producto.getCodigo().toLowerCase()));
+        }
+
+        for (TipoTela tipo : TipoTela.values()) {
+            assertEquals(ids(activos, p -> p.getTipoTela() == tipo), ids(repository.buscarPorTipo(tipo)), tipo.name());
+        }
+        assertEquals(ids(activos, Producto::tieneStockBajo), ids(repository.obtenerProductosConStockBajo()));
+        assertEquals(activos.stream().filter(Producto::tieneStockBajo).count(),
+                     repository.contarProductosConStockBajo());
+        assertEquals(activos.stream().filter(p -> p.getStockActual() == 0).count(),
+                     repository.contarProductosCriticos());
+
+        for (String texto : BUSQUEDAS) {
+            String busqueda = NormalizadorTexto.normalizar(texto);
+            assertEquals(ids(activos, p -> NormalizadorTexto.normalizar(p.getNombre()).contains(busqueda)),
+                         ids(repository.buscarPorNombre(texto)), "nombre " + texto);
+            Set<Long> porColor = ids(activos, p -> p.getColor() != null
+                    && NormalizadorTexto.normalizar(p.getColor()).contains(busqueda));
+            assertEquals(porColor, ids(repository.buscarPorColor(texto)), "color " + texto);
+            assertEquals(porColor.size(), repository.contarPorColor(texto), "color " + texto);
+        }
+
+        double valorTotal = activos.stream().mapToDouble(Producto::getValorInventario).sum();
+        assertEquals(valorTotal, repository.calcularValorTotalInventario(), 1e-6);
+
+        Map<TipoTela, EstadisticasTipo> estadisticas = repository.calcularEstadisticasPorTipo();
+        for (TipoTela tipo : TipoTela.values()) {
+            List<Producto> delTipo = activos.stream().filter(p -> p.getTipoTela() == tipo).toList();
+            EstadisticasTipo calculadas = estadisticas.get(tipo);
+            if (delTipo.isEmpty()) {
+                assertFalse(estadisticas.containsKey(tipo), tipo.name());
+                continue;
+            }
+            assertEquals(delTipo.size(), calculadas.getCantidad(), tipo.name());
+            assertEquals(delTipo.stream().mapToLong(Producto::getStockActual).sum(), calculadas.getStockTotal());
+            assertEquals(delTipo.stream().mapToDouble(Producto::getValorInventario).sum(),
+                         calculadas.getValorTotal(), 1e-6);
+            assertEquals(delTipo.stream().mapToDouble(Producto::getPrecio).min().orElseThrow(),
+                         calculadas.getPrecioMinimo());
+            assertEquals(delTipo.stream().mapToDouble(Producto::getPrecio).max().orElseThrow(),
+                         calculadas.getPrecioMaximo());
+        }
+
+        // Páginas pequeñas en orden de código cubren todos los activos una sola vez
+        List<String> paginados = new ArrayList<>();
+        String cursor = null;
+        PaginaProductos pagina;
+        do {
+            pagina = repository.obtenerPagina(cursor, 7);
+            pagina.getProductos().forEach(p -> paginados.add(p.getCodigo()));
+            cursor = paginados.isEmpty() ? null : paginados.get(paginados.size() - 1);
+        } while (pagina.hayMas());
+        assertEquals(activos.stream().map(Producto::getCodigo).toList(), paginados);
+    }
+
+    @Test
+    void indicesCoincidenConUnRecorridoTrasOperacionesAleatorias() {
+        Random random = new Random(7);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(repository.guardar(aleatorio(random, String.format("COD%04d", i))).getId());
+        }
+        verificarIndices();
+
+        for (int paso = 0; paso < 3000; paso++) {
+            long id = ids.get(random.nextInt(ids.size()));
+            Producto actual = repository.obtenerPorId(id);
+            switch (random.nextInt(6)) {
+                case 0 -> repository.incrementarStock(id, random.nextInt(5));
+                case 1 -> repository.intentarDecrementarStock(id, random.nextInt(8));
+                case 2 -> {
+                    // Cambia nombre, tipo, color, precio y stock; a veces también el código
+                    Producto editado = aleatorio(random, random.nextInt(4) == 0
+                            ? String.format("COD%04d", random.nextInt(300)) : actual.getCodigo());
+                    editado.setId(id);
+                    editado.setActivo(actual.isActivo());
+                    try {
+                        repository.actualizar(editado);
+                    } catch (IllegalArgumentException e) {
+                        // Código ya usado por otro activo: el producto no debe haber cambiado
+                        assertEquals(actual.toString(), repository.obtenerPorId(id).toString());
+                    }
+                }
+                case 3 -> repository.eliminar(id);
+                case 4 -> {
+                    String codigo = String.format("NEW%05d", paso);
+                    ids.add(repository.guardar(aleatorio(random, codigo)).getId());
+                }
+                default -> repository.actualizar(actual.copia());
+            }
+            if (paso % 250 == 0) {
+                verificarIndices();
+            }
+        }
+        verificarIndices();
+    }
+
+    @Test
+    void codigoDeUnProductoEliminadoSePuedeReutilizar() {
+        Random random = new Random(3);
+        Producto original = repository.guardar(aleatorio(random, "TELA-1"));
+        assertThrows(IllegalArgumentException.class, () -> repository.guardar(aleatorio(random, "tela-1")));
+
+        repository.eliminar(original.getId());
+        Producto nuevo = repository.guardar(aleatorio(random, "TELA-1"));
+
+        assertEquals(nuevo.getId(), repository.buscarPorCodigo("TELA-1").orElseThrow().getId());
+        assertFalse(repository.obtenerPorId(original.getId()).isActivo());
+        verificarIndices();
+    }
+
+    @Test
+    void cargaMasivaDejaLosMismosIndicesQueGuardarUnoAUno() {
+        Random random = new Random(11);
+        List<Producto> lote = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Producto producto = aleatorio(random, String.format("CARGA%04d", i));
+            producto.setId((long) i * 2 + 1);
+            producto.setActivo(i % 7 != 0);
+            lote.add(producto);
+        }
+        repository.cargarRecuperados(lote);
+        verificarIndices();
+
+        Producto siguiente = repository.guardar(aleatorio(random, "CARGA-NUEVO"));
+        assertEquals(600L, siguiente.getId());
+        verificarIndices();
+    }
+
+    @Test
+    void cargaMasivaConCodigoActivoRepetidoDejaElRepositorioVacio() {
+        Random random = new Random(5);
+        Producto a = aleatorio(random, "DUP-1");
+        Producto b = aleatorio(random, "dup-1");
+        a.setId(1L);
+        b.setId(2L);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.cargarRecuperados(List.of(a, b)));
+        assertEquals(0, repository.tamano());
+        verificarIndices();
+    }
+
+    @Test
+    void movimientosConcurrentesDejanIndicesYTotalesConsistentes() throws Exception {
+        Random random = new Random(13);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            ids.add(repository.guardar(aleatorio(random, String.format("HILO%03d", i))).getId());
+        }
+
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                int semilla = h;
+                tareas.add(hilos.submit(() -> {
+                    Random propio = new Random(semilla);
+                    for (int i = 0; i < 20_000; i++) {
+                        long id = ids.get(propio.nextInt(ids.size()));
+                        if (propio.nextBoolean()) {
+                            repository.incrementarStock(id, propio.nextInt(3));
+                        } else {
+                            repository.intentarDecrementarStock(id, propio.nextInt(3));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            hilos.shutdown();
+        }
+        verificarIndices();
+    }
+}